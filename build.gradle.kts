@@ -25,6 +25,7 @@
 plugins {
     idea
     `java-library`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.lu15"
@@ -40,4 +41,18 @@ dependencies {
 
     testImplementation("com.github.hollow-cube:minestom-ce:30699ec3fd")
     testImplementation("org.slf4j:slf4j-simple:2.0.9")
-}
\ No newline at end of file
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.0")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    jmh("com.github.hollow-cube:minestom-ce:30699ec3fd")
+}
+
+jmh {
+    benchmarkMode.addAll("thrpt")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
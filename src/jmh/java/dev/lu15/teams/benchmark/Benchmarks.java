@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.benchmark;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.player.PlayerConnection;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shared setup for the benchmarks: a server that is initialised but never
+ * started, and players whose connections encode packets and discard them.
+ */
+final class Benchmarks {
+
+    static {
+        MinecraftServer.init();
+    }
+
+    private Benchmarks() {
+
+    }
+
+    static @NotNull List<Player> players(int count) {
+        List<Player> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            players.add(new Player(UUID.randomUUID(), "player" + i, new DiscardingConnection()));
+        }
+        return players;
+    }
+
+    static @NotNull List<Entity> entities(int count) {
+        List<Entity> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) entities.add(new Entity(EntityType.ZOMBIE));
+        return entities;
+    }
+
+    private static final class DiscardingConnection extends PlayerConnection {
+
+        @Override
+        public void sendPacket(@NotNull SendablePacket packet) {
+            // encode cached packets so their cost is measured, the result is discarded
+            if (packet instanceof CachedPacket cached) cached.body();
+        }
+
+        @Override
+        public @NotNull SocketAddress getRemoteAddress() {
+            return new InetSocketAddress(0);
+        }
+
+    }
+
+}
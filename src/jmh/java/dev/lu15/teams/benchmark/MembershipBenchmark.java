@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.benchmark;
+
+import dev.lu15.teams.Team;
+import dev.lu15.teams.TeamMember;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MembershipBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int members;
+
+    @Param({"10", "1000", "50000"})
+    private int viewers;
+
+    @Param({"false", "true"})
+    private boolean compact;
+
+    private Team team;
+    private TeamMember member;
+
+    @Setup
+    public void setup() {
+        this.team = Team.builder("benchmark").compactMembers(this.compact).build();
+        Benchmarks.entities(this.members).forEach(entity -> this.team.addMember(TeamMember.of(entity)));
+        Benchmarks.players(this.viewers).forEach(this.team::addViewer);
+        this.member = TeamMember.of(Benchmarks.entities(1).get(0));
+    }
+
+    @Benchmark
+    public void addRemoveMember() {
+        this.team.addMember(this.member);
+        this.team.removeMember(this.member);
+    }
+
+    @Benchmark
+    public void addRemoveMembers() {
+        List<TeamMember> members = List.of(this.member);
+        this.team.addMembers(members);
+        this.team.removeMembers(members);
+    }
+
+    @Benchmark
+    public void iterateMembers(Blackhole blackhole) {
+        for (TeamMember member : this.team.getMembers()) blackhole.consume(member);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.benchmark;
+
+import dev.lu15.teams.Team;
+import dev.lu15.teams.TeamMeta;
+import java.util.concurrent.TimeUnit;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MetaBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int viewers;
+
+    private Team team;
+    private TeamMeta red;
+    private TeamMeta blue;
+
+    @Setup
+    public void setup() {
+        this.team = Team.of("benchmark");
+        Benchmarks.players(this.viewers).forEach(this.team::addViewer);
+        this.red = TeamMeta.builder().prefix(Component.text("[Red] ")).color(NamedTextColor.RED).build();
+        this.blue = TeamMeta.builder().prefix(Component.text("[Blue] ")).color(NamedTextColor.BLUE).build();
+    }
+
+    @Benchmark
+    public void setMeta() {
+        this.team.setMeta(this.red);
+        this.team.setMeta(this.blue);
+    }
+
+    @Benchmark
+    public void setMetaFunction() {
+        this.team.setMeta(meta -> meta.color(NamedTextColor.RED));
+        this.team.setMeta(meta -> meta.color(NamedTextColor.BLUE));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.benchmark;
+
+import dev.lu15.teams.Team;
+import dev.lu15.teams.TeamMember;
+import java.util.concurrent.TimeUnit;
+import net.minestom.server.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ViewerBenchmark {
+
+    @Param({"10", "1000", "50000"})
+    private int members;
+
+    @Param({"10", "1000", "50000"})
+    private int viewers;
+
+    private Team team;
+    private Player viewer;
+    private TeamMember member;
+
+    @Setup
+    public void setup() {
+        this.team = Team.of("benchmark");
+        Benchmarks.entities(this.members).forEach(entity -> this.team.addMember(TeamMember.of(entity)));
+        Benchmarks.players(this.viewers).forEach(this.team::addViewer);
+        this.viewer = Benchmarks.players(1).get(0);
+        this.member = TeamMember.of(Benchmarks.entities(1).get(0));
+    }
+
+    /**
+     * Adds a viewer while the create packet is cached.
+     */
+    @Benchmark
+    public void addViewer() {
+        this.team.addViewer(this.viewer);
+        this.team.removeViewer(this.viewer);
+    }
+
+    /**
+     * Adds a viewer after a membership change, so the create packet is rebuilt.
+     */
+    @Benchmark
+    public void addViewerAfterChange() {
+        this.team.addMember(this.member);
+        this.team.addViewer(this.viewer);
+        this.team.removeViewer(this.viewer);
+        this.team.removeMember(this.member);
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import net.minestom.server.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the members of a {@link Team} derived from a predicate over
+ * entities. Entities are evaluated when they join or leave an instance and
+ * when {@link #update(Entity)} is called, never by scanning every entity.
+ * Changes are collected and applied once per tick in a single batch.
+ */
+public sealed interface DynamicTeam permits DynamicTeamImpl {
+
+    /**
+     * Starts deriving the members of a team from a predicate. Entities
+     * already in an instance are evaluated once right away.
+     * @param team The team to maintain.
+     * @param predicate The predicate deciding whether an entity is a member.
+     * @return The new dynamic team.
+     */
+    static @NotNull DynamicTeam create(@NotNull Team team, @NotNull Predicate<@NotNull Entity> predicate) {
+        return new DynamicTeamImpl(team, predicate);
+    }
+
+    /**
+     * Gets the team whose members are maintained.
+     * @return The team.
+     */
+    @NotNull Team getTeam();
+
+    /**
+     * Evaluates an entity again at the end of the tick. Call this after
+     * changing state the predicate depends on, such as a tag.
+     * @param entity The entity to evaluate.
+     */
+    void update(@NotNull Entity entity);
+
+    /**
+     * Evaluates multiple entities again at the end of the tick.
+     * @param entities The entities to evaluate.
+     */
+    void update(@NotNull Collection<? extends Entity> entities);
+
+    /**
+     * Applies pending evaluations right away instead of at the end of the tick.
+     */
+    void flush();
+
+    /**
+     * Stops maintaining the team. Its current members are kept.
+     */
+    void close();
+
+}
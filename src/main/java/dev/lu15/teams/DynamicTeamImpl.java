@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.event.Event;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.instance.AddEntityToInstanceEvent;
+import net.minestom.server.event.instance.RemoveEntityFromInstanceEvent;
+import net.minestom.server.instance.Instance;
+import org.jetbrains.annotations.NotNull;
+
+final class DynamicTeamImpl implements DynamicTeam {
+
+    private final @NotNull Team team;
+    private final @NotNull Predicate<Entity> predicate;
+    private final @NotNull EventNode<Event> node;
+
+    // entities to evaluate at the end of the tick
+    private final @NotNull Set<Entity> dirty = ConcurrentHashMap.newKeySet();
+    private final @NotNull AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final @NotNull AtomicBoolean closed = new AtomicBoolean();
+
+    DynamicTeamImpl(@NotNull Team team, @NotNull Predicate<Entity> predicate) {
+        this.team = team;
+        this.predicate = predicate;
+
+        this.node = EventNode.all("minestom-teams-dynamic-" + team.getName());
+        this.node.addListener(AddEntityToInstanceEvent.class, event -> update(event.getEntity()));
+        this.node.addListener(RemoveEntityFromInstanceEvent.class, event -> update(event.getEntity()));
+        MinecraftServer.getGlobalEventHandler().addChild(this.node);
+
+        for (Instance instance : MinecraftServer.getInstanceManager().getInstances()) {
+            this.dirty.addAll(instance.getEntities());
+        }
+        flush();
+    }
+
+    @Override
+    public @NotNull Team getTeam() {
+        return this.team;
+    }
+
+    @Override
+    public void update(@NotNull Entity entity) {
+        if (this.closed.get()) return;
+        this.dirty.add(entity);
+        scheduleFlush();
+    }
+
+    @Override
+    public void update(@NotNull Collection<? extends Entity> entities) {
+        if (this.closed.get()) return;
+        this.dirty.addAll(entities);
+        scheduleFlush();
+    }
+
+    @Override
+    public void flush() {
+        if (this.dirty.isEmpty()) return;
+
+        Set<TeamMember> members = this.team.getMembers();
+        List<TeamMember> additions = new ArrayList<>();
+        List<TeamMember> removals = new ArrayList<>();
+        for (Entity entity : this.dirty) {
+            if (!this.dirty.remove(entity)) continue;
+            // evaluated against the latest state, so an entity changed many times in a tick is only evaluated once
+            TeamMember member = TeamMember.of(entity);
+            boolean matches = !entity.isRemoved() && entity.getInstance() != null && this.predicate.test(entity);
+            if (matches == members.contains(member)) continue;
+            if (matches) additions.add(member);
+            else removals.add(member);
+        }
+        if (additions.isEmpty() && removals.isEmpty()) return;
+
+        // one removal and one addition packet at most
+        this.team.batch(team -> {
+            if (!removals.isEmpty()) team.removeMembers(removals);
+            if (!additions.isEmpty()) team.addMembers(additions);
+        });
+    }
+
+    @Override
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) return;
+        MinecraftServer.getGlobalEventHandler().removeChild(this.node);
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (!this.flushScheduled.compareAndSet(false, true)) return;
+        MinecraftServer.getSchedulerManager().scheduleNextTick(() -> {
+            this.flushScheduled.set(false);
+            flush();
+        });
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A set of members keyed by their entity id, stored in a primitive open
+ * addressing map. Named members have no entity and are kept apart, keyed by
+ * their id. The members and their ids are snapshotted into arrays on first
+ * read after a change, so iterating and building packets does not allocate
+ * per member.
+ */
+final class EntityIdMemberSet extends AbstractSet<TeamMember> {
+
+    private static final @NotNull TeamMember @NotNull [] EMPTY = new TeamMember[0];
+
+    private final @NotNull Int2ObjectOpenHashMap<TeamMember> members = new Int2ObjectOpenHashMap<>();
+    private final @NotNull Map<String, TeamMember> named = new HashMap<>();
+
+    private volatile @NotNull TeamMember @Nullable [] snapshot = EMPTY;
+    private volatile @Nullable List<String> ids = Collections.emptyList();
+
+    @Override
+    public synchronized boolean add(@NotNull TeamMember member) {
+        TeamMember previous = member instanceof TeamMember.Named ? this.named.putIfAbsent(member.getId(), member) : this.members.putIfAbsent(entityId(member), member);
+        if (previous != null) return false;
+        changed();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!(o instanceof TeamMember member)) return false;
+        if (member instanceof TeamMember.Named) {
+            if (this.named.remove(member.getId()) == null) return false;
+            changed();
+            return true;
+        }
+        int id = entityId(member);
+        TeamMember current = this.members.get(id);
+        if (current == null || !current.equals(member)) return false;
+        this.members.remove(id);
+        changed();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean contains(Object o) {
+        if (!(o instanceof TeamMember member)) return false;
+        if (member instanceof TeamMember.Named) return this.named.containsKey(member.getId());
+        TeamMember current = this.members.get(entityId(member));
+        return current != null && current.equals(member);
+    }
+
+    /**
+     * Gets the member with the given entity id.
+     * @param entityId The entity id.
+     * @return The member, or null if no member has the given entity id.
+     */
+    synchronized @Nullable TeamMember get(int entityId) {
+        return this.members.get(entityId);
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.members.size() + this.named.size();
+    }
+
+    @Override
+    public @NotNull Iterator<TeamMember> iterator() {
+        TeamMember[] snapshot = snapshot();
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < snapshot.length;
+            }
+
+            @Override
+            public TeamMember next() {
+                if (this.index >= snapshot.length) throw new NoSuchElementException();
+                return snapshot[this.index++];
+            }
+        };
+    }
+
+    /**
+     * Gets the ids of all members, computed once per change.
+     * @return The ids of all members.
+     */
+    @NotNull List<String> ids() {
+        List<String> ids = this.ids;
+        if (ids != null) return ids;
+        synchronized (this) {
+            if (this.ids != null) return this.ids;
+            TeamMember[] snapshot = snapshot();
+            String[] array = new String[snapshot.length];
+            for (int i = 0; i < snapshot.length; i++) array[i] = snapshot[i].getId();
+            ids = Collections.unmodifiableList(Arrays.asList(array));
+            this.ids = ids;
+            return ids;
+        }
+    }
+
+    private @NotNull TeamMember @NotNull [] snapshot() {
+        TeamMember[] snapshot = this.snapshot;
+        if (snapshot != null) return snapshot;
+        synchronized (this) {
+            if (this.snapshot != null) return this.snapshot;
+            snapshot = new TeamMember[this.members.size() + this.named.size()];
+            int index = 0;
+            for (TeamMember member : this.members.values()) snapshot[index++] = member;
+            for (TeamMember member : this.named.values()) snapshot[index++] = member;
+            this.snapshot = snapshot;
+            return snapshot;
+        }
+    }
+
+    private void changed() {
+        this.snapshot = null;
+        this.ids = null;
+    }
+
+    private static int entityId(@NotNull TeamMember member) {
+        if (member instanceof TeamMember.Player player) return player.player().getEntityId();
+        return ((TeamMember.Entity) member).entity().getEntityId();
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minestom.server.adventure.audience.PacketGroupingAudience;
+import net.minestom.server.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An audience of the players in a team, kept up to date as members change so
+ * sending to it never looks at entity members.
+ */
+final class MemberAudience implements PacketGroupingAudience {
+
+    private final @NotNull Set<TeamMember> members;
+    private final @NotNull Set<Player> players = ConcurrentHashMap.newKeySet();
+
+    MemberAudience(@NotNull Set<TeamMember> members) {
+        this.members = members;
+    }
+
+    void added(@NotNull TeamMember member) {
+        if (!(member instanceof TeamMember.Player player)) return;
+        this.players.add(player.player());
+        // a removal may have run in between, the members have the final say
+        if (!this.members.contains(member)) this.players.remove(player.player());
+    }
+
+    void removed(@NotNull TeamMember member) {
+        if (!(member instanceof TeamMember.Player player)) return;
+        this.players.remove(player.player());
+        if (this.members.contains(member)) this.players.add(player.player());
+    }
+
+    @Override
+    public @NotNull Collection<@NotNull Player> getPlayers() {
+        return Collections.unmodifiableSet(this.players);
+    }
+
+}
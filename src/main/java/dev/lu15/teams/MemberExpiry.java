@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import net.minestom.server.MinecraftServer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Removes members whose membership expired, for every team from a single
+ * task. Expiries wait in a hierarchical timing wheel, each level covering 64
+ * times the span of the one below, and move down a level as their deadline
+ * gets closer. Members expiring in the same tick are removed in one batch per
+ * team.
+ */
+final class MemberExpiry {
+
+    private static final int BITS = 6;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private static final @NotNull Queue<Entry> SCHEDULED = new ConcurrentLinkedQueue<>();
+    private static final @NotNull TickTask TASK = new TickTask(MemberExpiry::tick, () -> !SCHEDULED.isEmpty());
+
+    // only touched by the task
+    @SuppressWarnings("unchecked")
+    private static final @NotNull List<Entry>[][] WHEELS = new List[LEVELS][SIZE];
+    // expiries beyond the top level, looked at again whenever the top level turns
+    private static @NotNull List<Entry> overflow = new ArrayList<>();
+    private static long tick = 0;
+    private static int pending = 0;
+
+    static {
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SIZE; slot++) WHEELS[level][slot] = new ArrayList<>();
+        }
+    }
+
+    private MemberExpiry() {
+
+    }
+
+    static @NotNull Entry schedule(@NotNull TeamImpl team, @NotNull TeamMember member, @NotNull Duration ttl) {
+        long ticks = Math.max(1, (ttl.toMillis() + MinecraftServer.TICK_MS - 1) / MinecraftServer.TICK_MS);
+        Entry entry = new Entry(team, member, ticks);
+        SCHEDULED.add(entry);
+        TASK.start();
+        return entry;
+    }
+
+    private static boolean tick() {
+        Entry scheduled;
+        while ((scheduled = SCHEDULED.poll()) != null) {
+            scheduled.deadline = tick + scheduled.ticks;
+            insert(scheduled);
+        }
+
+        // higher levels first, so entries cascading into a slot turning this tick are not missed
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((tick & ((1L << (BITS * level)) - 1)) != 0) continue;
+            if (level == LEVELS - 1) {
+                List<Entry> parked = overflow;
+                overflow = new ArrayList<>();
+                pending -= parked.size();
+                parked.forEach(MemberExpiry::insert);
+            }
+            int slot = (int) ((tick >>> (BITS * level)) & MASK);
+            List<Entry> cascading = WHEELS[level][slot];
+            WHEELS[level][slot] = new ArrayList<>();
+            pending -= cascading.size();
+            cascading.forEach(MemberExpiry::insert);
+        }
+
+        int slot = (int) (tick & MASK);
+        List<Entry> due = WHEELS[0][slot];
+        if (!due.isEmpty()) {
+            WHEELS[0][slot] = new ArrayList<>();
+            pending -= due.size();
+            Map<TeamImpl, List<Entry>> expired = new HashMap<>();
+            for (Entry entry : due) expired.computeIfAbsent(entry.team, key -> new ArrayList<>()).add(entry);
+            expired.forEach(TeamImpl::expireMembers);
+        }
+        tick++;
+        return pending > 0;
+    }
+
+    private static void insert(@NotNull Entry entry) {
+        pending++;
+        long delay = entry.deadline - tick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delay >= 1L << (BITS * (level + 1))) continue;
+            WHEELS[level][(int) ((entry.deadline >>> (BITS * level)) & MASK)].add(entry);
+            return;
+        }
+        overflow.add(entry);
+    }
+
+    static final class Entry {
+
+        private final @NotNull TeamImpl team;
+        private final @NotNull TeamMember member;
+        private final long ticks;
+        private long deadline;
+
+        private Entry(@NotNull TeamImpl team, @NotNull TeamMember member, long ticks) {
+            this.team = team;
+            this.member = member;
+            this.ticks = ticks;
+        }
+
+        @NotNull TeamMember member() {
+            return this.member;
+        }
+
+    }
+
+}
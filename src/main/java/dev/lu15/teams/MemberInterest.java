@@ -0,0 +1,242 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.EntityTracker;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Only tells viewers about members that are within their entity view
+ * distance in the same instance. Work is done incrementally each tick: a
+ * viewer is only scanned through the instance's entity tracker when it moved
+ * to another chunk, and a member is only compared against viewers when it
+ * moved to another chunk. Nothing is allocated for viewers and members that
+ * did not move.
+ */
+final class MemberInterest {
+
+    private final @NotNull String team;
+    private final @NotNull EntityIdMemberSet members;
+
+    private final @NotNull Map<Player, Viewer> viewers = new ConcurrentHashMap<>();
+    private final @NotNull TickTask task = new TickTask(this::tick, () -> !this.viewers.isEmpty());
+    // members added since the last tick, which may not have moved if they were on the team before
+    private final @NotNull Set<String> added = ConcurrentHashMap.newKeySet();
+
+    // only touched by the task
+    private final @NotNull Int2ObjectMap<Location> locations = new Int2ObjectOpenHashMap<>();
+    private final @NotNull Set<String> visible = new HashSet<>();
+    private int tick = 0;
+
+    MemberInterest(@NotNull String team, @NotNull EntityIdMemberSet members) {
+        this.team = team;
+        this.members = members;
+    }
+
+    void start(@NotNull Player player) {
+        this.viewers.put(player, new Viewer());
+        this.task.start();
+    }
+
+    void stop(@NotNull Player player) {
+        this.viewers.remove(player);
+    }
+
+    /**
+     * Looks at added members on the next tick.
+     * @param ids The ids of the added members.
+     */
+    void added(@NotNull Collection<String> ids) {
+        this.added.addAll(ids);
+    }
+
+    /**
+     * Sends removed members to the viewers that were told about them.
+     * @param ids The ids of the removed members.
+     */
+    void removed(@NotNull Collection<String> ids) {
+        for (Map.Entry<Player, Viewer> entry : this.viewers.entrySet()) {
+            List<String> removals = null;
+            Set<String> known = entry.getValue().known;
+            synchronized (known) {
+                for (String id : ids) {
+                    if (!known.remove(id)) continue;
+                    if (removals == null) removals = new ArrayList<>();
+                    removals.add(id);
+                }
+            }
+            if (removals != null) entry.getKey().sendPacket(new TeamsPacket(this.team, new TeamsPacket.RemoveEntitiesToTeamAction(removals)));
+        }
+    }
+
+    private boolean tick() {
+        this.tick++;
+        int range = MinecraftServer.getEntityViewDistance();
+
+        // viewers that moved to another chunk are scanned in full, the rest only look at members that moved
+        for (Map.Entry<Player, Viewer> entry : this.viewers.entrySet()) {
+            Viewer viewer = entry.getValue();
+            if (viewer.relocate(entry.getKey())) scan(entry.getKey(), viewer, range);
+        }
+
+        boolean checkAdded = !this.added.isEmpty();
+        for (TeamMember member : this.members) {
+            Entity entity = entity(member);
+            if (entity == null) continue;
+            Location location = this.locations.get(entity.getEntityId());
+            if (location == null) {
+                location = new Location();
+                this.locations.put(entity.getEntityId(), location);
+            }
+            location.seen = this.tick;
+            boolean moved = location.moveTo(entity);
+            if (moved || checkAdded && this.added.remove(member.getId())) moved(member.getId(), location, range);
+        }
+        if (checkAdded) this.added.clear();
+        // members that left the team since the last tick
+        this.locations.values().removeIf(location -> location.seen != this.tick);
+
+        for (Map.Entry<Player, Viewer> entry : this.viewers.entrySet()) entry.getValue().send(entry.getKey(), this.team);
+
+        return !this.viewers.isEmpty();
+    }
+
+    private void scan(@NotNull Player player, @NotNull Viewer viewer, int range) {
+        this.visible.clear();
+        Instance instance = player.getInstance();
+        if (instance != null) {
+            instance.getEntityTracker().nearbyEntitiesByChunkRange(player.getPosition(), range, EntityTracker.Target.ENTITIES, entity -> {
+                TeamMember member = this.members.get(entity.getEntityId());
+                if (member != null) this.visible.add(member.getId());
+            });
+        }
+
+        synchronized (viewer.known) {
+            for (String id : this.visible) {
+                if (viewer.known.add(id)) viewer.addition(id);
+            }
+            for (Iterator<String> iterator = viewer.known.iterator(); iterator.hasNext(); ) {
+                String id = iterator.next();
+                if (this.visible.contains(id)) continue;
+                iterator.remove();
+                viewer.removal(id);
+            }
+        }
+    }
+
+    private void moved(@NotNull String id, @NotNull Location location, int range) {
+        for (Viewer viewer : this.viewers.values()) {
+            // already up to date from its own scan this tick
+            if (viewer.scanned == this.tick) continue;
+            boolean inRange = viewer.instance != null && viewer.instance == location.instance
+                    && Math.abs(viewer.chunkX - location.chunkX) <= range
+                    && Math.abs(viewer.chunkZ - location.chunkZ) <= range;
+            synchronized (viewer.known) {
+                if (inRange && viewer.known.add(id)) viewer.addition(id);
+                else if (!inRange && viewer.known.remove(id)) viewer.removal(id);
+            }
+        }
+    }
+
+    private static @Nullable Entity entity(@NotNull TeamMember member) {
+        if (member instanceof TeamMember.Player player) return player.player();
+        if (member instanceof TeamMember.Entity entity) return entity.entity();
+        return null;
+    }
+
+    private static class Location {
+
+        @Nullable Instance instance;
+        int chunkX;
+        int chunkZ;
+        int seen;
+
+        // true if the entity is in another chunk or instance than last time, or was never seen
+        boolean moveTo(@NotNull Entity entity) {
+            Instance instance = entity.getInstance();
+            Point position = entity.getPosition();
+            int chunkX = position.chunkX();
+            int chunkZ = position.chunkZ();
+            if (instance == this.instance && chunkX == this.chunkX && chunkZ == this.chunkZ) return false;
+            this.instance = instance;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            return true;
+        }
+
+    }
+
+    private final class Viewer extends Location {
+
+        // ids the viewer has been sent, guarded by the set itself
+        private final @NotNull Set<String> known = new HashSet<>();
+        private int scanned = -1;
+        private @Nullable List<String> additions;
+        private @Nullable List<String> removals;
+
+        // true if the viewer has to be scanned again
+        boolean relocate(@NotNull Player player) {
+            if (!moveTo(player)) return false;
+            this.scanned = MemberInterest.this.tick;
+            return true;
+        }
+
+        void addition(@NotNull String id) {
+            if (this.additions == null) this.additions = new ArrayList<>();
+            this.additions.add(id);
+        }
+
+        void removal(@NotNull String id) {
+            if (this.removals == null) this.removals = new ArrayList<>();
+            this.removals.add(id);
+        }
+
+        void send(@NotNull Player player, @NotNull String team) {
+            if (this.removals != null) player.sendPacket(new TeamsPacket(team, new TeamsPacket.RemoveEntitiesToTeamAction(this.removals)));
+            if (this.additions != null) player.sendPacket(new TeamsPacket(team, new TeamsPacket.AddEntitiesToTeamAction(this.additions)));
+            this.removals = null;
+            this.additions = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Locks striped by member id, shared by every team. A change to a member and
+ * the packets telling viewers about it happen under the member's lock, so
+ * changes to one member reach viewers in the order they were made. Moving a
+ * member between teams takes the same lock again, which cannot deadlock.
+ */
+final class MemberLocks {
+
+    private static final int STRIPES = 64;
+    private static final @NotNull ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) LOCKS[i] = new ReentrantLock();
+    }
+
+    private MemberLocks() {
+
+    }
+
+    /**
+     * Locks the stripes of the given members, always in the same order.
+     * @param members The members to lock.
+     * @return The locked stripes, to pass to {@link #unlock(long)}.
+     */
+    static long lock(@NotNull Collection<? extends TeamMember> members) {
+        long stripes = 0;
+        for (TeamMember member : members) stripes |= 1L << stripe(member);
+        for (long rest = stripes; rest != 0; rest &= rest - 1) LOCKS[Long.numberOfTrailingZeros(rest)].lock();
+        return stripes;
+    }
+
+    static void unlock(long stripes) {
+        for (long rest = stripes; rest != 0; rest &= rest - 1) LOCKS[Long.numberOfTrailingZeros(rest)].unlock();
+    }
+
+    // by id, so a player and a named member with their username share a lock
+    private static int stripe(@NotNull TeamMember member) {
+        int hash = member.getId().hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+}
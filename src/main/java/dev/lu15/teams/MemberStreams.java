@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends the members of a large team to new viewers in chunks. The create
+ * packet only carries the first chunk, the rest follow as add packets spread
+ * over the next ticks.
+ */
+final class MemberStreams {
+
+    private final @NotNull String team;
+    private final int chunkSize;
+    private final int chunksPerTick;
+
+    private final @NotNull Map<Player, Stream> streams = new ConcurrentHashMap<>();
+    private final @NotNull TickTask task = new TickTask(this::tick, () -> !this.streams.isEmpty());
+
+    MemberStreams(@NotNull String team, int chunkSize, int chunksPerTick) {
+        this.team = team;
+        this.chunkSize = chunkSize;
+        this.chunksPerTick = chunksPerTick;
+    }
+
+    /**
+     * Prepares sending members to a new viewer. Nothing is sent to the viewer
+     * until {@link #resume(Player)} is called once the create packet was sent.
+     * @param player The new viewer.
+     * @param ids The ids of all members.
+     * @return The ids to include in the create packet.
+     */
+    @NotNull List<String> start(@NotNull Player player, @NotNull List<String> ids) {
+        if (ids.size() <= this.chunkSize) return ids;
+        this.streams.put(player, new Stream(ids.subList(this.chunkSize, ids.size())));
+        return ids.subList(0, this.chunkSize);
+    }
+
+    /**
+     * Starts sending the remaining members to a viewer that was sent the create packet.
+     * @param player The viewer.
+     */
+    void resume(@NotNull Player player) {
+        Stream stream = this.streams.get(player);
+        if (stream == null) return;
+        stream.resume();
+        this.task.start();
+    }
+
+    void stop(@NotNull Player player) {
+        this.streams.remove(player);
+    }
+
+    boolean isStreaming(@NotNull Player player) {
+        return !this.streams.isEmpty() && this.streams.containsKey(player);
+    }
+
+    /**
+     * Runs an action for a viewer while no chunk is sent to them.
+     * @param player The viewer.
+     * @param action The action, usually sending member changes.
+     */
+    void paused(@NotNull Player player, @NotNull Runnable action) {
+        Stream stream = this.streams.get(player);
+        if (stream == null) {
+            action.run();
+            return;
+        }
+        synchronized (stream) {
+            action.run();
+        }
+    }
+
+    /**
+     * Checks whether a member was not sent to a viewer yet, in which case the
+     * stream sends it in its latest state and nothing else has to be sent.
+     * @param player The viewer.
+     * @param id The id of the member.
+     * @param keep Whether the member is still on the team.
+     * @return Whether the member was not sent yet.
+     */
+    boolean unsent(@NotNull Player player, @NotNull String id, boolean keep) {
+        Stream stream = this.streams.get(player);
+        return stream != null && stream.unsent(id, keep);
+    }
+
+    private boolean tick() {
+        for (Map.Entry<Player, Stream> entry : this.streams.entrySet()) {
+            if (!entry.getValue().isResumed()) continue;
+            for (int i = 0; i < this.chunksPerTick; i++) {
+                // sent under the stream's monitor, so member changes never overtake a chunk
+                synchronized (entry.getValue()) {
+                    List<String> chunk = entry.getValue().next(this.chunkSize);
+                    if (chunk.isEmpty()) {
+                        this.streams.remove(entry.getKey(), entry.getValue());
+                        break;
+                    }
+                    entry.getKey().sendPacket(new TeamsPacket(this.team, new TeamsPacket.AddEntitiesToTeamAction(chunk)));
+                }
+            }
+        }
+        return !this.streams.isEmpty();
+    }
+
+    private static final class Stream {
+
+        private final @NotNull Set<String> unsent;
+        private boolean resumed = false;
+
+        private Stream(@NotNull List<String> ids) {
+            this.unsent = new LinkedHashSet<>(ids);
+        }
+
+        synchronized void resume() {
+            this.resumed = true;
+        }
+
+        synchronized boolean isResumed() {
+            return this.resumed;
+        }
+
+        synchronized @NotNull List<String> next(int size) {
+            List<String> chunk = new ArrayList<>(Math.min(size, this.unsent.size()));
+            Iterator<String> iterator = this.unsent.iterator();
+            while (iterator.hasNext() && chunk.size() < size) {
+                chunk.add(iterator.next());
+                iterator.remove();
+            }
+            return chunk;
+        }
+
+        synchronized boolean unsent(@NotNull String id, boolean keep) {
+            return keep ? this.unsent.contains(id) : this.unsent.remove(id);
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.SendablePacket;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Delivers the packets of a team to its viewers off the calling thread.
+ * Packets of a team are delivered one after another in the order they were
+ * queued, so every viewer sees them in order.
+ */
+final class PacketFanOut {
+
+    private final @NotNull Executor executor;
+    private final @NotNull Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final @NotNull AtomicBoolean draining = new AtomicBoolean();
+
+    PacketFanOut(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the executor shared by teams that do not provide their own.
+     * @return The shared executor.
+     */
+    static @NotNull Executor sharedExecutor() {
+        return SharedExecutor.EXECUTOR;
+    }
+
+    void send(@NotNull Collection<Player> players, @NotNull SendablePacket packet) {
+        submit(() -> {
+            for (Player player : players) player.sendPacket(packet);
+        });
+    }
+
+    void send(@NotNull Player player, @NotNull SendablePacket packet) {
+        submit(() -> player.sendPacket(packet));
+    }
+
+    /**
+     * Waits for the packets queued so far.
+     * @return A future completed once every packet queued before the call was delivered.
+     */
+    @NotNull CompletableFuture<Void> await() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        submit(() -> future.complete(null));
+        return future;
+    }
+
+    /**
+     * Holds the packets queued after this call until the given future completes,
+     * without blocking any thread.
+     * @param future The future to wait for, such as {@link #await()} of another team.
+     */
+    void after(@NotNull CompletableFuture<?> future) {
+        submit(new Barrier(future));
+    }
+
+    private void submit(@NotNull Runnable task) {
+        this.tasks.add(task);
+        if (!this.draining.compareAndSet(false, true)) return;
+        try {
+            this.executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            this.draining.set(false);
+            throw e;
+        }
+    }
+
+    private void drain() {
+        // only one drain runs per team, which keeps its packets in order
+        do {
+            Runnable task;
+            while ((task = this.tasks.peek()) != null) {
+                if (task instanceof Barrier barrier && !barrier.future().isDone()) {
+                    // still draining, so nothing else starts a drain until the barrier is passed
+                    barrier.future().whenComplete((result, throwable) -> this.executor.execute(this::drain));
+                    return;
+                }
+                this.tasks.poll();
+                try {
+                    task.run();
+                } catch (Throwable throwable) {
+                    MinecraftServer.getExceptionManager().handleException(throwable);
+                }
+            }
+            this.draining.set(false);
+            // a task queued after the last poll but before the flag was cleared would otherwise be stranded
+        } while (!this.tasks.isEmpty() && this.draining.compareAndSet(false, true));
+    }
+
+    private record Barrier(@NotNull CompletableFuture<?> future) implements Runnable {
+
+        @Override
+        public void run() {
+            // passed once its future completed, see drain
+        }
+
+    }
+
+    private static final class SharedExecutor {
+
+        private static final @NotNull AtomicInteger THREADS = new AtomicInteger();
+        private static final @NotNull ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "minestom-teams-fan-out-" + THREADS.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+
+    }
+
+}
@@ -24,15 +24,22 @@
 
 package dev.lu15.teams;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import net.minestom.server.Viewable;
 import net.minestom.server.adventure.audience.PacketGroupingAudience;
+import net.minestom.server.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
 /**
- * Represents a team.
+ * Represents a team. Teams are safe to use from multiple threads.
  */
 public sealed interface Team extends Viewable, PacketGroupingAudience permits TeamImpl {
 
@@ -42,15 +49,34 @@ public sealed interface Team extends Viewable, PacketGroupingAudience permits Te
      * @return The new team.
      */
     static @NotNull Team of(@NotNull String name) {
-        return new TeamImpl(name);
+        return builder(name).build();
+    }
+
+    /**
+     * Creates a new {@link Team.Builder} for a team with the given name.
+     * @param name The name of the team.
+     * @return The new {@link Team.Builder}.
+     */
+    static @NotNull Builder builder(@NotNull String name) {
+        return new TeamImpl.BuilderImpl(name);
     }
 
     /**
      * Gets the members of this team. NOT to be confused with viewers.
+     * The returned view can be iterated while other threads change the team.
      * @return The members of this team.
      */
     @NotNull @Unmodifiable Set<TeamMember> getMembers();
 
+    /**
+     * Gets an audience of the players in this team. NOT to be confused with
+     * this team itself, which is an audience of its viewers. Messages are
+     * encoded once and sent to every player member, non-player members are
+     * skipped.
+     * @return An audience of the players in this team.
+     */
+    @NotNull PacketGroupingAudience members();
+
     /**
      * Adds a member to this team.
      * @param member The member to add.
@@ -58,6 +84,17 @@ public sealed interface Team extends Viewable, PacketGroupingAudience permits Te
      */
     boolean addMember(@NotNull TeamMember member);
 
+    /**
+     * Adds a member to this team for a limited time. Adding a member already
+     * in the team starts its time over. Members expiring in the same tick are
+     * removed with a single packet per team.
+     * @param member The member to add.
+     * @param ttl How long the member stays in this team.
+     * @return true if the member was added, false if the member was already in the team.
+     * @throws IllegalArgumentException if ttl is not positive.
+     */
+    boolean addMember(@NotNull TeamMember member, @NotNull Duration ttl);
+
     /**
      * Removes a member from this team.
      * @param member The member to remove.
@@ -65,6 +102,36 @@ public sealed interface Team extends Viewable, PacketGroupingAudience permits Te
      */
     boolean removeMember(@NotNull TeamMember member);
 
+    /**
+     * Adds multiple members to this team, sending a single packet to viewers.
+     * @param members The members to add.
+     * @return The members that were added, excluding those already in the team.
+     */
+    @NotNull @Unmodifiable Set<TeamMember> addMembers(@NotNull Collection<? extends TeamMember> members);
+
+    /**
+     * Removes multiple members from this team, sending a single packet to viewers.
+     * @param members The members to remove.
+     * @return The members that were removed, excluding those not in the team.
+     */
+    @NotNull @Unmodifiable Set<TeamMember> removeMembers(@NotNull Collection<? extends TeamMember> members);
+
+    /**
+     * Applies multiple changes to this team at once. Packets for changes made
+     * inside the batch are held back and sent when the batch completes, so
+     * viewers receive at most one packet per kind of change. Only changes made
+     * by the calling thread are held back, other threads are not affected.
+     * @param changes The changes to apply.
+     */
+    void batch(@NotNull Consumer<@NotNull Team> changes);
+
+    /**
+     * Sends pending changes and waits for their packets to be delivered.
+     * Teams that send packets on the calling thread return a completed future.
+     * @return A future completed once every packet sent so far was delivered.
+     */
+    @NotNull CompletableFuture<Void> flushPackets();
+
     /**
      * Gets the name of this team.
      * @return The name of this team.
@@ -89,4 +156,191 @@ public sealed interface Team extends Viewable, PacketGroupingAudience permits Te
      */
     void setMeta(@NotNull Function<TeamMeta.@NotNull Builder, TeamMeta.@NotNull Builder> meta);
 
+    /**
+     * Resolves the metadata a viewer sees again and sends it to that viewer.
+     * Teams with a {@link Builder#metaResolver(BiFunction) meta resolver} only
+     * resolve metadata when it changes or a viewer is added, so this must be
+     * called when something the resolver depends on changes for a viewer,
+     * such as the viewer becoming an ally.
+     * @param player The viewer to refresh.
+     */
+    void refreshViewer(@NotNull Player player);
+
+    /**
+     * Resolves the metadata every viewer sees again and sends it to them.
+     * @see #refreshViewer(Player)
+     */
+    void refreshViewers();
+
+    /**
+     * Plays an animation, replacing the one currently playing. Each frame
+     * sets the metadata of this team without calling events, setting the
+     * metadata by hand does not stop the animation. Replicated servers are
+     * told when the animation starts and stops and play its frames themselves.
+     * @param animation The animation to play.
+     */
+    void animate(@NotNull TeamAnimation animation);
+
+    /**
+     * Stops the animation currently playing. The metadata of the frame last
+     * shown is kept, and replicated so other servers keep the same frame.
+     */
+    void stopAnimation();
+
+    /**
+     * Represents a builder for {@link Team}.
+     */
+    sealed interface Builder permits TeamImpl.BuilderImpl {
+
+        /**
+         * Builds the {@link Team}.
+         * @return The built {@link Team}.
+         * @throws IllegalStateException if incompatible options were set.
+         */
+        @NotNull Team build();
+
+        /**
+         * Sets whether changes are deferred. A deferred team records changes
+         * and sends them to viewers once at the end of the tick, so many
+         * changes in a single tick result in at most one packet per kind of change.
+         * @param deferred Whether changes are deferred.
+         * @return This builder.
+         */
+        @NotNull Builder deferred(boolean deferred);
+
+        /**
+         * Defers changes until the end of the tick.
+         * @return This builder.
+         */
+        default @NotNull Builder deferred() {
+            return deferred(true);
+        }
+
+        /**
+         * Sets whether members and viewers are removed automatically. An
+         * auto-evicting team drops members whose entity was removed and
+         * viewers who disconnected, in one batch per tick.
+         * @param autoEvict Whether members and viewers are removed automatically.
+         * @return This builder.
+         */
+        @NotNull Builder autoEvict(boolean autoEvict);
+
+        /**
+         * Removes members and viewers automatically once they are gone.
+         * @return This builder.
+         */
+        default @NotNull Builder autoEvict() {
+            return autoEvict(true);
+        }
+
+        /**
+         * Sets whether members are stored in a compact set keyed by entity id.
+         * This suits teams with very many entity members, as member ids are
+         * computed once per change rather than every time a viewer is added.
+         * @param compactMembers Whether members are stored in a compact set.
+         * @return This builder.
+         */
+        @NotNull Builder compactMembers(boolean compactMembers);
+
+        /**
+         * Stores members in a compact set keyed by entity id.
+         * @return This builder.
+         */
+        default @NotNull Builder compactMembers() {
+            return compactMembers(true);
+        }
+
+        /**
+         * Sets a resolver that decides the metadata each viewer sees, given the
+         * team's metadata. Viewers that resolve to equal metadata share a
+         * single packet, so the resolver should return shared instances for
+         * each variant, such as one meta for allies and one for enemies.
+         * @param resolver The resolver, receiving the viewer and the team's metadata.
+         * @return This builder.
+         */
+        @NotNull Builder metaResolver(@NotNull BiFunction<@NotNull Player, @NotNull TeamMeta, @NotNull TeamMeta> resolver);
+
+        /**
+         * Sets whether the prefix, suffix and display name are rendered for
+         * each viewer's locale. Components are rendered once per locale and
+         * reused until the metadata changes, viewers sharing a locale share
+         * a packet. Viewers are sent the team again when their client
+         * settings change, so a locale reported after they were added is used.
+         * @param localized Whether components are rendered per locale.
+         * @return This builder.
+         */
+        @NotNull Builder localized(boolean localized);
+
+        /**
+         * Renders the prefix, suffix and display name for each viewer's locale.
+         * @return This builder.
+         */
+        default @NotNull Builder localized() {
+            return localized(true);
+        }
+
+        /**
+         * Sends members to new viewers in chunks. The create packet only
+         * contains the first chunk of members, the remaining chunks are sent
+         * over the following ticks so joining a very large team does not
+         * stall the viewer's connection.
+         * @param chunkSize The maximum number of members per packet.
+         * @param chunksPerTick The maximum number of chunks sent to a viewer per tick.
+         * @return This builder.
+         * @throws IllegalArgumentException if either value is not positive.
+         */
+        @NotNull Builder chunkedMembers(int chunkSize, int chunksPerTick);
+
+        /**
+         * Sets whether viewers are only told about members near them. An
+         * interest managed team only sends a viewer the members within its
+         * entity view distance in the same instance, adding and removing
+         * them as they come into and go out of range. Members are stored as
+         * with {@link #compactMembers(boolean)}. Cannot be combined with
+         * {@link #chunkedMembers(int, int)}.
+         * @param interestManaged Whether viewers are only told about members near them.
+         * @return This builder.
+         */
+        @NotNull Builder interestManaged(boolean interestManaged);
+
+        /**
+         * Only tells viewers about members near them.
+         * @return This builder.
+         */
+        default @NotNull Builder interestManaged() {
+            return interestManaged(true);
+        }
+
+        /**
+         * Sets whether packets are delivered to viewers off the calling
+         * thread, using an executor shared by all teams. Each packet is
+         * encoded once and packets of a team reach every viewer in order.
+         * Moving a member out of such a team holds the packets of the new
+         * team until the queued ones were delivered, without blocking, so
+         * viewers see the removal before the addition to the new team.
+         * Cannot be combined with {@link #chunkedMembers(int, int)} or
+         * {@link #interestManaged(boolean)}.
+         * @param asyncPackets Whether packets are delivered asynchronously.
+         * @return This builder.
+         */
+        @NotNull Builder asyncPackets(boolean asyncPackets);
+
+        /**
+         * Delivers packets to viewers off the calling thread.
+         * @return This builder.
+         */
+        default @NotNull Builder asyncPackets() {
+            return asyncPackets(true);
+        }
+
+        /**
+         * Delivers packets to viewers using the given executor.
+         * @param executor The executor delivering packets.
+         * @return This builder.
+         * @see #asyncPackets(boolean)
+         */
+        @NotNull Builder asyncPackets(@NotNull Executor executor);
+
+    }
+
 }
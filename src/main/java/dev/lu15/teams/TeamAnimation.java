@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Represents a sequence of {@link TeamMeta} frames, such as a countdown or a
+ * pulsing suffix. Frames are built once and their packets are encoded once
+ * per team, every animated team is driven by a single shared task.
+ */
+public sealed interface TeamAnimation permits TeamAnimationImpl {
+
+    /**
+     * Creates a new {@link TeamAnimation.Builder}.
+     * @return The new {@link TeamAnimation.Builder}.
+     */
+    static @NotNull Builder builder() {
+        return new TeamAnimationImpl.BuilderImpl();
+    }
+
+    /**
+     * Gets the frames of this animation.
+     * @return The frames of this animation.
+     */
+    @NotNull @Unmodifiable List<TeamMeta> frames();
+
+    /**
+     * Gets how long each frame is shown, in ticks.
+     * @return The duration of each frame, in the order of {@link #frames()}.
+     */
+    @NotNull @Unmodifiable List<Integer> durations();
+
+    /**
+     * Gets whether this animation starts over after the last frame.
+     * @return true if this animation loops, false if it stops on the last frame.
+     */
+    boolean loop();
+
+    /**
+     * Represents a builder for {@link TeamAnimation}.
+     */
+    sealed interface Builder permits TeamAnimationImpl.BuilderImpl {
+
+        /**
+         * Builds the {@link TeamAnimation}.
+         * @return The built {@link TeamAnimation}.
+         * @throws IllegalStateException if no frames were added.
+         */
+        @NotNull TeamAnimation build();
+
+        /**
+         * Adds a frame.
+         * @param meta The metadata shown during the frame.
+         * @param ticks How long the frame is shown, in ticks.
+         * @return This builder.
+         * @throws IllegalArgumentException if ticks is not positive.
+         */
+        @NotNull Builder frame(@NotNull TeamMeta meta, int ticks);
+
+        /**
+         * Sets whether the animation starts over after the last frame.
+         * @param loop Whether the animation loops.
+         * @return This builder.
+         */
+        @NotNull Builder loop(boolean loop);
+
+        /**
+         * Starts the animation over after the last frame.
+         * @return This builder.
+         */
+        default @NotNull Builder loop() {
+            return loop(true);
+        }
+
+    }
+
+}
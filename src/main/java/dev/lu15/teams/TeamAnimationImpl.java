@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+record TeamAnimationImpl(@NotNull List<TeamMeta> frames, @NotNull List<Integer> durations, boolean loop) implements TeamAnimation {
+
+    TeamAnimationImpl {
+        frames = List.copyOf(frames);
+        durations = List.copyOf(durations);
+    }
+
+    static final class BuilderImpl implements TeamAnimation.Builder {
+
+        private final @NotNull List<TeamMeta> frames = new ArrayList<>();
+        private final @NotNull List<Integer> durations = new ArrayList<>();
+        private boolean loop = false;
+
+        BuilderImpl() {
+
+        }
+
+        @Override
+        public @NotNull TeamAnimation build() {
+            if (this.frames.isEmpty()) throw new IllegalStateException("An animation needs at least one frame");
+            return new TeamAnimationImpl(this.frames, this.durations, this.loop);
+        }
+
+        @Override
+        public @NotNull Builder frame(@NotNull TeamMeta meta, int ticks) {
+            if (ticks < 1) throw new IllegalArgumentException("ticks must be positive");
+            this.frames.add(meta);
+            this.durations.add(ticks);
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder loop(boolean loop) {
+            this.loop = loop;
+            return this;
+        }
+
+    }
+
+}
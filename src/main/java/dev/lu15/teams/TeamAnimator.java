@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Plays the animations of every team from a single task. Playbacks wait in a
+ * timing wheel, so each tick only visits the playbacks whose frame ends.
+ */
+final class TeamAnimator {
+
+    private static final int WHEEL_SIZE = 64;
+
+    private static final @NotNull Queue<Playback> STARTED = new ConcurrentLinkedQueue<>();
+    private static final @NotNull TickTask TASK = new TickTask(TeamAnimator::tick, () -> !STARTED.isEmpty());
+
+    // only touched by the task
+    @SuppressWarnings("unchecked")
+    private static final @NotNull List<Playback>[] WHEEL = new List[WHEEL_SIZE];
+    private static long tick = 0;
+    private static int scheduled = 0;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++) WHEEL[i] = new ArrayList<>();
+    }
+
+    private TeamAnimator() {
+
+    }
+
+    static @NotNull Playback play(@NotNull TeamImpl team, @NotNull TeamAnimationImpl animation) {
+        Playback playback = new Playback(team, animation);
+        STARTED.add(playback);
+        TASK.start();
+        return playback;
+    }
+
+    private static boolean tick() {
+        // replaced before visiting, frames as long as the wheel land in this slot again
+        int slot = (int) (tick & (WHEEL_SIZE - 1));
+        List<Playback> due = WHEEL[slot];
+        WHEEL[slot] = new ArrayList<>();
+        for (Playback playback : due) {
+            scheduled--;
+            if (playback.cancelled) continue;
+            if (playback.rounds > 0) {
+                playback.rounds--;
+                WHEEL[slot].add(playback);
+                scheduled++;
+                continue;
+            }
+            if (!playback.advance()) continue;
+            playback.show();
+            schedule(playback);
+        }
+
+        // after the slot was visited, so a frame as long as the wheel is not cut short
+        Playback started;
+        while ((started = STARTED.poll()) != null) {
+            if (started.cancelled) continue;
+            started.show();
+            schedule(started);
+        }
+        tick++;
+        return scheduled > 0;
+    }
+
+    private static void schedule(@NotNull Playback playback) {
+        int delay = playback.animation.durations().get(playback.frame);
+        playback.rounds = (delay - 1) / WHEEL_SIZE;
+        WHEEL[(int) ((tick + delay) & (WHEEL_SIZE - 1))].add(playback);
+        scheduled++;
+    }
+
+    static final class Playback {
+
+        private final @NotNull TeamImpl team;
+        private final @NotNull TeamAnimationImpl animation;
+        private int frame = 0;
+        private int rounds = 0;
+        private volatile boolean cancelled = false;
+
+        private Playback(@NotNull TeamImpl team, @NotNull TeamAnimationImpl animation) {
+            this.team = team;
+            this.animation = animation;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+        }
+
+        private void show() {
+            this.team.showFrame(this.animation.frames().get(this.frame));
+        }
+
+        // moves to the next frame, false once an animation that does not loop is over
+        private boolean advance() {
+            if (++this.frame < this.animation.frames().size()) return true;
+            if (!this.animation.loop()) return false;
+            this.frame = 0;
+            return true;
+        }
+
+    }
+
+}
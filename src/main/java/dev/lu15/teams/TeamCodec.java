@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * Binary encoding shared by snapshots and replication, big endian.
+ * Strings are stored as their UTF-8 length (int) followed by their bytes,
+ * components as their JSON form.
+ */
+final class TeamCodec {
+
+    private static final @NotNull CollisionRule[] COLLISION_RULES = CollisionRule.values();
+    private static final @NotNull TagVisibility[] TAG_VISIBILITIES = TagVisibility.values();
+
+    private TeamCodec() {
+
+    }
+
+    static void writeMeta(@NotNull DataOutputStream out, @NotNull TeamMeta meta) throws IOException {
+        out.writeByte(meta.collisionRule().ordinal());
+        out.writeByte(meta.tagVisibility().ordinal());
+        writeString(out, NamedTextColor.NAMES.key(meta.color()));
+        out.writeBoolean(meta.allowFriendlyFire());
+        out.writeBoolean(meta.canSeeFriendlyInvisibles());
+        writeComponent(out, meta.prefix());
+        writeComponent(out, meta.suffix());
+        writeComponent(out, meta.displayName());
+    }
+
+    static @NotNull TeamMeta readMeta(@NotNull ByteBuffer buffer) {
+        CollisionRule collisionRule = COLLISION_RULES[buffer.get()];
+        TagVisibility tagVisibility = TAG_VISIBILITIES[buffer.get()];
+        NamedTextColor color = NamedTextColor.NAMES.value(readString(buffer));
+        boolean allowFriendlyFire = buffer.get() != 0;
+        boolean canSeeFriendlyInvisibles = buffer.get() != 0;
+        return new TeamMetaImpl.BuilderImpl()
+                .collisionRule(collisionRule)
+                .tagVisibility(tagVisibility)
+                .color(color == null ? NamedTextColor.WHITE : color)
+                .allowFriendlyFire(allowFriendlyFire)
+                .canSeeFriendlyInvisibles(canSeeFriendlyInvisibles)
+                .prefix(readComponent(buffer))
+                .suffix(readComponent(buffer))
+                .displayName(readComponent(buffer))
+                .build();
+    }
+
+    private static void writeComponent(@NotNull DataOutputStream out, @NotNull Component component) throws IOException {
+        writeString(out, GsonComponentSerializer.gson().serialize(component));
+    }
+
+    private static @NotNull Component readComponent(@NotNull ByteBuffer buffer) {
+        return GsonComponentSerializer.gson().deserialize(readString(buffer));
+    }
+
+    static void writeString(@NotNull DataOutputStream out, @NotNull String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static @NotNull String readString(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
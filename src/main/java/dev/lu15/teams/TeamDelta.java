@@ -0,0 +1,166 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A single replicated change to a team.
+ */
+sealed interface TeamDelta {
+
+    byte CREATED = 0;
+    byte REMOVED = 1;
+    byte META = 2;
+    byte MEMBERS_ADDED = 3;
+    byte MEMBERS_REMOVED = 4;
+    byte ANIMATION_STARTED = 5;
+    byte ANIMATION_STOPPED = 6;
+
+    @NotNull String team();
+
+    void write(@NotNull DataOutputStream out) throws IOException;
+
+    static @NotNull TeamDelta read(@NotNull ByteBuffer buffer) {
+        byte type = buffer.get();
+        String team = TeamCodec.readString(buffer);
+        return switch (type) {
+            case CREATED -> new Created(team);
+            case REMOVED -> new Removed(team);
+            case META -> new Meta(team, TeamCodec.readMeta(buffer));
+            case MEMBERS_ADDED -> new MembersAdded(team, readIds(buffer));
+            case MEMBERS_REMOVED -> new MembersRemoved(team, readIds(buffer));
+            case ANIMATION_STARTED -> new AnimationStarted(team, readAnimation(buffer));
+            case ANIMATION_STOPPED -> new AnimationStopped(team);
+            default -> throw new IllegalArgumentException("Unknown team delta " + type);
+        };
+    }
+
+    private static void write(@NotNull DataOutputStream out, byte type, @NotNull String team) throws IOException {
+        out.writeByte(type);
+        TeamCodec.writeString(out, team);
+    }
+
+    private static void writeIds(@NotNull DataOutputStream out, @NotNull List<String> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (String id : ids) TeamCodec.writeString(out, id);
+    }
+
+    private static @NotNull List<String> readIds(@NotNull ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) ids.add(TeamCodec.readString(buffer));
+        return ids;
+    }
+
+    private static @NotNull TeamAnimationImpl readAnimation(@NotNull ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<TeamMeta> frames = new ArrayList<>(count);
+        List<Integer> durations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            frames.add(TeamCodec.readMeta(buffer));
+            durations.add(buffer.getInt());
+        }
+        return new TeamAnimationImpl(frames, durations, buffer.get() != 0);
+    }
+
+    record Created(@NotNull String team) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, CREATED, this.team);
+        }
+
+    }
+
+    record Removed(@NotNull String team) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, REMOVED, this.team);
+        }
+
+    }
+
+    record Meta(@NotNull String team, @NotNull TeamMeta meta) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, META, this.team);
+            TeamCodec.writeMeta(out, this.meta);
+        }
+
+    }
+
+    record MembersAdded(@NotNull String team, @NotNull List<String> ids) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, MEMBERS_ADDED, this.team);
+            writeIds(out, this.ids);
+        }
+
+    }
+
+    record MembersRemoved(@NotNull String team, @NotNull List<String> ids) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, MEMBERS_REMOVED, this.team);
+            writeIds(out, this.ids);
+        }
+
+    }
+
+    record AnimationStarted(@NotNull String team, @NotNull TeamAnimationImpl animation) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, ANIMATION_STARTED, this.team);
+            out.writeInt(this.animation.frames().size());
+            for (int i = 0; i < this.animation.frames().size(); i++) {
+                TeamCodec.writeMeta(out, this.animation.frames().get(i));
+                out.writeInt(this.animation.durations().get(i));
+            }
+            out.writeBoolean(this.animation.loop());
+        }
+
+    }
+
+    record AnimationStopped(@NotNull String team) implements TeamDelta {
+
+        @Override
+        public void write(@NotNull DataOutputStream out) throws IOException {
+            TeamDelta.write(out, ANIMATION_STOPPED, this.team);
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import dev.lu15.teams.event.TeamMemberAddEvent;
+import dev.lu15.teams.event.TeamMemberRemoveEvent;
+import dev.lu15.teams.event.TeamMetaChangeEvent;
+import dev.lu15.teams.event.TeamViewerAddEvent;
+import dev.lu15.teams.event.TeamViewerRemoveEvent;
+import java.util.Set;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.event.ListenerHandle;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Calls team events. Events are only created when something listens for
+ * them, otherwise a change costs a single check of the listener handle.
+ */
+final class TeamEvents {
+
+    private static final @NotNull ListenerHandle<TeamMemberAddEvent> MEMBER_ADD = EventDispatcher.getHandle(TeamMemberAddEvent.class);
+    private static final @NotNull ListenerHandle<TeamMemberRemoveEvent> MEMBER_REMOVE = EventDispatcher.getHandle(TeamMemberRemoveEvent.class);
+    private static final @NotNull ListenerHandle<TeamViewerAddEvent> VIEWER_ADD = EventDispatcher.getHandle(TeamViewerAddEvent.class);
+    private static final @NotNull ListenerHandle<TeamViewerRemoveEvent> VIEWER_REMOVE = EventDispatcher.getHandle(TeamViewerRemoveEvent.class);
+    private static final @NotNull ListenerHandle<TeamMetaChangeEvent> META_CHANGE = EventDispatcher.getHandle(TeamMetaChangeEvent.class);
+
+    private TeamEvents() {
+
+    }
+
+    static boolean cancelMemberAdd(@NotNull Team team, @NotNull Set<TeamMember> members, @NotNull TeamMember member) {
+        if (!MEMBER_ADD.hasListener() || members.contains(member)) return false;
+        TeamMemberAddEvent event = new TeamMemberAddEvent(team, member);
+        MEMBER_ADD.call(event);
+        return event.isCancelled();
+    }
+
+    static boolean cancelMemberRemove(@NotNull Team team, @NotNull Set<TeamMember> members, @NotNull TeamMember member) {
+        if (!MEMBER_REMOVE.hasListener() || !members.contains(member)) return false;
+        TeamMemberRemoveEvent event = new TeamMemberRemoveEvent(team, member);
+        MEMBER_REMOVE.call(event);
+        return event.isCancelled();
+    }
+
+    static boolean cancelViewerAdd(@NotNull Team team, @NotNull Set<Player> viewers, @NotNull Player player) {
+        if (!VIEWER_ADD.hasListener() || viewers.contains(player)) return false;
+        TeamViewerAddEvent event = new TeamViewerAddEvent(team, player);
+        VIEWER_ADD.call(event);
+        return event.isCancelled();
+    }
+
+    static boolean cancelViewerRemove(@NotNull Team team, @NotNull Set<Player> viewers, @NotNull Player player) {
+        if (!VIEWER_REMOVE.hasListener() || !viewers.contains(player)) return false;
+        TeamViewerRemoveEvent event = new TeamViewerRemoveEvent(team, player);
+        VIEWER_REMOVE.call(event);
+        return event.isCancelled();
+    }
+
+    /**
+     * Calls the meta change event.
+     * @return The meta to apply, or null if the change was cancelled.
+     */
+    static @Nullable TeamMeta metaChange(@NotNull Team team, @NotNull TeamMeta oldMeta, @NotNull TeamMeta newMeta) {
+        if (!META_CHANGE.hasListener()) return newMeta;
+        TeamMetaChangeEvent event = new TeamMetaChangeEvent(team, oldMeta, newMeta);
+        META_CHANGE.call(event);
+        return event.isCancelled() ? null : event.getNewMeta();
+    }
+
+}
@@ -24,28 +24,106 @@
 
 package dev.lu15.teams;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.adventure.MinestomAdventure;
+import net.minestom.server.adventure.audience.PacketGroupingAudience;
 import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.play.TeamsPacket;
+import net.minestom.server.utils.PacketUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 
 final class TeamImpl implements Team {
 
-    private final @NotNull Set<TeamMember> members = new HashSet<>();
-    private final @NotNull Set<Player> viewers = new HashSet<>();
+    private final @NotNull Set<TeamMember> members;
+    private final @NotNull MemberAudience memberAudience;
+    // viewers mapped to the version their create packet was built at
+    private final @NotNull Map<Player, Long> viewers = new ConcurrentHashMap<>();
+    // players whose create packet is being sent, packets for them are held until it was
+    private final @NotNull Map<Player, Joining> joining = new ConcurrentHashMap<>();
+
+    // bumped whenever the members change, create packets record the version they were built at
+    private final @NotNull AtomicLong version = new AtomicLong();
+    // changes being applied to the members, create packets wait for them to finish
+    private final @NotNull AtomicInteger applying = new AtomicInteger();
+
+    // member changes not sent yet, held by a batch on any thread or until the tick ends
+    private final @NotNull Map<TeamMember, Change> pendingMembers = new ConcurrentHashMap<>();
+    private final @NotNull AtomicBoolean pendingMeta = new AtomicBoolean();
+    private final @NotNull AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // the batch running on the current thread, other threads keep sending their changes
+    private final @NotNull ThreadLocal<Batch> batches = new ThreadLocal<>();
+
+    // members whose membership expires, mapped to their latest expiry
+    private final @NotNull Map<TeamMember, MemberExpiry.Entry> expiries = new ConcurrentHashMap<>();
 
     private final @NotNull String name;
+    private final boolean deferred;
+    private final @Nullable BiFunction<Player, TeamMeta, TeamMeta> metaResolver;
+    private final boolean localized;
+    private final @Nullable MemberStreams streams;
+    private final @Nullable MemberInterest interest;
+    private final @Nullable PacketFanOut fanOut;
+    // orders the packets of a sync team behind those of an async team a member moved from, kept once created
+    private volatile @Nullable PacketFanOut detour;
+    private final @NotNull TeamUpdateEncoder updates;
+
+    // the playing animation and the update packets of its frames, encoded at most once
+    private final @NotNull AtomicReference<TeamAnimator.Playback> animation = new AtomicReference<>();
+    private volatile @NotNull Map<TeamMeta, CachedPacket> framePackets = Map.of();
+
+    // components rendered once per meta and locale, replaced when the meta changes
+    private volatile @NotNull Map<LocalizedMeta, TeamMeta> localizedMetas = new ConcurrentHashMap<>();
 
-    private @NotNull TeamMeta meta = new TeamMetaImpl.BuilderImpl().build();
+    // sent to new viewers, one per meta variant, replaced rather than cleared
+    // so a packet being built concurrently can never be cached after a change
+    private volatile @NotNull Map<TeamMeta, CreatePacket> createPackets = new ConcurrentHashMap<>();
+    private final @NotNull CachedPacket removePacket;
 
-    TeamImpl(@NotNull String name) {
-        this.name = name;
+    // set while the team is owned by a manager
+    volatile @Nullable TeamManagerImpl manager;
+
+    private final @NotNull AtomicReference<TeamMeta> meta = new AtomicReference<>(new TeamMetaImpl.BuilderImpl().build());
+
+    TeamImpl(@NotNull BuilderImpl builder) {
+        this.name = builder.name;
+        this.deferred = builder.deferred;
+        this.metaResolver = builder.metaResolver;
+        this.localized = builder.localized;
+        this.streams = builder.chunkSize > 0 ? new MemberStreams(this.name, builder.chunkSize, builder.chunksPerTick) : null;
+        this.members = builder.compactMembers || builder.interestManaged ? new EntityIdMemberSet() : ConcurrentHashMap.newKeySet();
+        this.memberAudience = new MemberAudience(this.members);
+        this.updates = new TeamUpdateEncoder(this.name);
+        this.removePacket = new CachedPacket(new TeamsPacket(this.name, new TeamsPacket.RemoveTeamAction()));
+        this.interest = builder.interestManaged ? new MemberInterest(this.name, (EntityIdMemberSet) this.members) : null;
+        this.fanOut = builder.packetExecutor != null ? new PacketFanOut(builder.packetExecutor) : null;
+        if (builder.autoEvict) TeamLifecycle.register(this);
+        if (builder.localized) TeamLocales.register(this);
     }
 
     @Override
@@ -53,18 +131,130 @@ final class TeamImpl implements Team {
         return Collections.unmodifiableSet(this.members);
     }
 
+    @Override
+    public @NotNull PacketGroupingAudience members() {
+        return this.memberAudience;
+    }
+
     @Override
     public boolean addMember(@NotNull TeamMember member) {
-        boolean added = this.members.add(member);
-        if (added) sendGroupedPacket(new TeamsPacket(this.name, new TeamsPacket.AddEntitiesToTeamAction(Collections.singleton(member.getId()))));
+        return !addMembers(Collections.singletonList(member)).isEmpty();
+    }
+
+    @Override
+    public boolean addMember(@NotNull TeamMember member, @NotNull Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be positive");
+        boolean added = addMember(member);
+        // cancelled by a listener
+        if (!added && !this.members.contains(member)) return false;
+        this.expiries.put(member, MemberExpiry.schedule(this, member, ttl));
         return added;
     }
 
     @Override
     public boolean removeMember(@NotNull TeamMember member) {
-        boolean removed = this.members.remove(member);
-        if (removed) sendGroupedPacket(new TeamsPacket(this.name, new TeamsPacket.RemoveEntitiesToTeamAction(Collections.singleton(member.getId()))));
-        return removed;
+        return !removeMembers(Collections.singletonList(member), true).isEmpty();
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Set<TeamMember> addMembers(@NotNull Collection<? extends TeamMember> members) {
+        // listeners are called before any lock is taken
+        List<TeamMember> allowed = new ArrayList<>(members.size());
+        for (TeamMember member : members) {
+            if (!TeamEvents.cancelMemberAdd(this, this.members, member)) allowed.add(member);
+        }
+        if (allowed.isEmpty()) return Collections.emptySet();
+
+        long locks = MemberLocks.lock(allowed);
+        try {
+            Set<TeamMember> added = new LinkedHashSet<>();
+            this.applying.incrementAndGet();
+            try {
+                for (TeamMember member : allowed) {
+                    if (this.members.add(member)) added.add(member);
+                }
+                if (added.isEmpty()) return Collections.emptySet();
+                changed(added, true);
+            } finally {
+                this.applying.decrementAndGet();
+            }
+            for (TeamMember member : added) this.memberAudience.added(member);
+            // before the team tells its viewers, so the previous team removes the members first
+            TeamManagerImpl manager = this.manager;
+            if (manager != null) manager.membersAdded(added, this);
+            dispatch(added);
+            return Collections.unmodifiableSet(added);
+        } finally {
+            MemberLocks.unlock(locks);
+        }
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Set<TeamMember> removeMembers(@NotNull Collection<? extends TeamMember> members) {
+        return removeMembers(members, true);
+    }
+
+    // removals the team makes itself, such as expiries, cannot be cancelled and call no events
+    void purgeMembers(@NotNull Collection<? extends TeamMember> members) {
+        removeMembers(members, false);
+    }
+
+    private @NotNull @Unmodifiable Set<TeamMember> removeMembers(@NotNull Collection<? extends TeamMember> members, boolean events) {
+        List<TeamMember> allowed = new ArrayList<>(members.size());
+        for (TeamMember member : members) {
+            if (!events || !TeamEvents.cancelMemberRemove(this, this.members, member)) allowed.add(member);
+        }
+        if (allowed.isEmpty()) return Collections.emptySet();
+
+        long locks = MemberLocks.lock(allowed);
+        try {
+            Set<TeamMember> removed = new LinkedHashSet<>();
+            this.applying.incrementAndGet();
+            try {
+                for (TeamMember member : allowed) {
+                    if (this.members.remove(member)) removed.add(member);
+                }
+                if (removed.isEmpty()) return Collections.emptySet();
+                changed(removed, false);
+            } finally {
+                this.applying.decrementAndGet();
+            }
+            for (TeamMember member : removed) {
+                forgetExpiry(member);
+                this.memberAudience.removed(member);
+            }
+            TeamManagerImpl manager = this.manager;
+            if (manager != null) removed.forEach(member -> manager.memberRemoved(member, this));
+            dispatch(removed);
+            return Collections.unmodifiableSet(removed);
+        } finally {
+            MemberLocks.unlock(locks);
+        }
+    }
+
+    @Override
+    public void batch(@NotNull Consumer<Team> changes) {
+        Batch batch = this.batches.get();
+        if (batch == null) {
+            batch = new Batch();
+            this.batches.set(batch);
+        }
+        batch.depth++;
+        try {
+            changes.accept(this);
+        } finally {
+            if (--batch.depth == 0) {
+                flush();
+                this.batches.remove();
+            }
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> flushPackets() {
+        flush();
+        PacketFanOut queue = this.fanOut != null ? this.fanOut : this.detour;
+        return queue == null ? CompletableFuture.completedFuture(null) : queue.await();
     }
 
     @Override
@@ -74,37 +264,180 @@ final class TeamImpl implements Team {
 
     @Override
     public @NotNull TeamMeta getMeta() {
-        return this.meta;
+        return this.meta.get();
     }
 
     @Override
     public void setMeta(@NotNull TeamMeta meta) {
-        this.meta = meta;
-        sendGroupedPacket(new TeamsPacket(this.name, createUpdateAction()));
+        TeamMeta current = this.meta.get();
+        // metas are interned, so an unchanged meta is the same instance
+        if (meta == current) return;
+        TeamMeta changed = TeamEvents.metaChange(this, current, meta);
+        if (changed == null) return;
+        this.meta.set(changed);
+        metaChanged();
     }
 
     @Override
     public void setMeta(@NotNull Function<TeamMeta.Builder, TeamMeta.Builder> meta) {
-        setMeta(meta.apply(new TeamMetaImpl.BuilderImpl(this.meta)).build());
+        // retried if another thread changes the meta in between, so no update is lost
+        TeamMeta current;
+        TeamMeta changed;
+        do {
+            current = this.meta.get();
+            changed = meta.apply(new TeamMetaImpl.BuilderImpl(current)).build();
+            if (changed == current) return;
+        } while (!this.meta.compareAndSet(current, changed));
+
+        // the event is called once, a cancelled or replaced change is undone unless another change followed it
+        TeamMeta accepted = TeamEvents.metaChange(this, current, changed);
+        if (accepted != changed) {
+            TeamMeta replacement = accepted == null ? current : accepted;
+            if (!this.meta.compareAndSet(changed, replacement) || replacement == current) return;
+        }
+        metaChanged();
+    }
+
+    @Override
+    public void refreshViewer(@NotNull Player player) {
+        if (!this.viewers.containsKey(player)) return;
+        sendUpdate(player, this.meta.get());
+    }
+
+    @Override
+    public void refreshViewers() {
+        sendMetaUpdate();
+    }
+
+    @Override
+    public void animate(@NotNull TeamAnimation animation) {
+        TeamAnimationImpl impl = (TeamAnimationImpl) animation;
+        Map<TeamMeta, CachedPacket> packets = new HashMap<>();
+        if (this.metaResolver == null && !this.localized && !MinestomAdventure.AUTOMATIC_COMPONENT_TRANSLATION) {
+            for (TeamMeta frame : impl.frames()) packets.computeIfAbsent(frame, key -> new CachedPacket(this.updates.encodeDetached(key)));
+        }
+        this.framePackets = packets;
+        TeamAnimator.Playback previous = this.animation.getAndSet(TeamAnimator.play(this, impl));
+        if (previous != null) previous.cancel();
+        TeamManagerImpl manager = this.manager;
+        if (manager != null) manager.animationStarted(this, impl);
+    }
+
+    @Override
+    public void stopAnimation() {
+        TeamAnimator.Playback previous = this.animation.getAndSet(null);
+        if (previous == null) return;
+        previous.cancel();
+        this.framePackets = Map.of();
+        TeamManagerImpl manager = this.manager;
+        if (manager != null) manager.animationStopped(this);
+    }
+
+    // frames skip events and replication, other servers play the animation themselves
+    void showFrame(@NotNull TeamMeta frame) {
+        // create packets and rendered metas are kept per meta, so they stay valid across frames
+        if (this.meta.getAndSet(frame) != frame) sendMetaUpdate();
     }
 
     @Override
     public boolean addViewer(@NotNull Player player) {
-        boolean added = this.viewers.add(player);
-        if (added) player.sendPacket(new TeamsPacket(this.name, createCreateAction()));
-        return added;
+        Joining joining = join(player);
+        if (joining == null) return false;
+        CreatePacket create = createPacket(player);
+        joining.joined = create.version();
+        sendPacket(player, create.packet());
+        showViewer(player, joining);
+        return true;
+    }
+
+    // starts adding a viewer whose create packet is sent by the manager along with other teams
+    @Nullable BundledViewer addBundledViewer(@NotNull Player player) {
+        Joining joining = join(player);
+        if (joining == null) return null;
+        CreatePacket create = createPacket(player);
+        joining.joined = create.version();
+        return new BundledViewer(this, (CachedPacket) create.packet(), joining);
+    }
+
+    // registered before the create packet is built, so every change after it reaches the player
+    private @Nullable Joining join(@NotNull Player player) {
+        if (TeamEvents.cancelViewerAdd(this, this.viewers.keySet(), player)) return null;
+        if (this.viewers.containsKey(player)) return null;
+        Joining joining = new Joining();
+        if (this.joining.putIfAbsent(player, joining) != null) return null;
+        // became a viewer in between
+        if (this.viewers.containsKey(player)) {
+            this.joining.remove(player, joining);
+            return null;
+        }
+        return joining;
+    }
+
+    // called once the create packet was sent, the packets held meanwhile follow it
+    private void showViewer(@NotNull Player player, @NotNull Joining joining) {
+        boolean shown;
+        synchronized (joining) {
+            // a player evicted while joining, such as on disconnect, is not kept
+            shown = !joining.dropped;
+            if (shown) {
+                for (Runnable held : joining.held) held.run();
+                this.viewers.put(player, joining.joined);
+            }
+            joining.held = null;
+        }
+        this.joining.remove(player, joining);
+        if (!shown) return;
+        if (this.streams != null) this.streams.resume(player);
+        if (this.interest != null) this.interest.start(player);
+    }
+
+    record BundledViewer(@NotNull TeamImpl team, @NotNull CachedPacket packet, @NotNull Joining joining) {
+
+        void show(@NotNull Player player) {
+            this.team.showViewer(player, this.joining);
+        }
+
+    }
+
+    // a player whose create packet is being sent
+    static final class Joining {
+
+        // the version the create packet was built at, set before it is sent
+        private long joined;
+        private @Nullable List<Runnable> held = new ArrayList<>();
+        private boolean dropped = false;
+
+        // false once the player is a viewer, packets then reach them like any other viewer
+        synchronized boolean hold(@NotNull Runnable send) {
+            if (this.held == null) return false;
+            if (!this.dropped) this.held.add(send);
+            return true;
+        }
+
+        synchronized void drop() {
+            this.dropped = true;
+        }
+
+    }
+
+    // teams whose create packet is the same for every viewer and sent on the calling thread
+    boolean isBundleable() {
+        return this.fanOut == null && this.streams == null && this.interest == null && this.metaResolver == null && !this.localized;
     }
 
     @Override
     public boolean removeViewer(@NotNull Player player) {
-        boolean removed = this.viewers.remove(player);
-        if (removed) player.sendPacket(new TeamsPacket(this.name, new TeamsPacket.RemoveTeamAction()));
-        return removed;
+        if (TeamEvents.cancelViewerRemove(this, this.viewers.keySet(), player)) return false;
+        if (this.viewers.remove(player) == null) return false;
+        if (this.streams != null) this.streams.stop(player);
+        if (this.interest != null) this.interest.stop(player);
+        sendPacket(player, this.removePacket);
+        return true;
     }
 
     @Override
     public @NotNull @Unmodifiable Set<@NotNull Player> getViewers() {
-        return Collections.unmodifiableSet(this.viewers);
+        return Collections.unmodifiableSet(this.viewers.keySet());
     }
 
     @Override
@@ -112,38 +445,497 @@ final class TeamImpl implements Team {
         return getViewers();
     }
 
-    private @NotNull TeamsPacket.CreateTeamAction createCreateAction() {
+    @Override
+    public void sendGroupedPacket(@NotNull ServerPacket packet) {
+        sendToViewers(packet);
+    }
+
+    // removes members that moved to another team of the same manager, called under their locks
+    void evictMembers(@NotNull List<TeamMember> members) {
+        long locks = MemberLocks.lock(members);
+        try {
+            List<TeamMember> evicted = new ArrayList<>(members.size());
+            this.applying.incrementAndGet();
+            try {
+                for (TeamMember member : members) {
+                    if (this.members.remove(member)) evicted.add(member);
+                }
+                if (evicted.isEmpty()) return;
+                changed(evicted, false);
+            } finally {
+                this.applying.decrementAndGet();
+            }
+            for (TeamMember member : evicted) {
+                forgetExpiry(member);
+                this.memberAudience.removed(member);
+            }
+            // sent right away, so viewers see it before the addition to the new team
+            sendChanges(evicted);
+        } finally {
+            MemberLocks.unlock(locks);
+        }
+    }
+
+    // holds the packets sent from now on until those the given team queued so far were delivered
+    void sendAfter(@NotNull TeamImpl previous) {
+        if (previous.fanOut == null) return;
+        CompletableFuture<Void> delivered = previous.fanOut.await();
+        PacketFanOut queue = this.fanOut;
+        if (queue == null) {
+            synchronized (this) {
+                queue = this.detour;
+                // runs on whichever thread sends or passes the barrier, like a sync team would
+                if (queue == null) this.detour = queue = new PacketFanOut(Runnable::run);
+            }
+        }
+        queue.after(delivered);
+    }
+
+    // removes members whose expiry is still their latest one, in a single batch
+    void expireMembers(@NotNull List<MemberExpiry.Entry> expired) {
+        List<TeamMember> members = new ArrayList<>(expired.size());
+        for (MemberExpiry.Entry entry : expired) {
+            if (this.expiries.remove(entry.member(), entry)) members.add(entry.member());
+        }
+        if (!members.isEmpty()) purgeMembers(members);
+    }
+
+    private void forgetExpiry(@NotNull TeamMember member) {
+        // a member added again later must not be removed by an earlier expiry
+        if (!this.expiries.isEmpty()) this.expiries.remove(member);
+    }
+
+    // drops viewers whose connection is gone, without sending them anything
+    void evictViewers(@NotNull Collection<Player> players) {
+        for (Player player : players) {
+            Joining joining = this.joining.remove(player);
+            if (joining != null) joining.drop();
+            this.viewers.remove(player);
+            if (this.streams != null) this.streams.stop(player);
+            if (this.interest != null) this.interest.stop(player);
+        }
+    }
+
+    private void metaChanged() {
+        invalidateCreatePackets();
+        TeamManagerImpl manager = this.manager;
+        if (manager != null) manager.metaChanged(this);
+        if (this.localized) this.localizedMetas = new ConcurrentHashMap<>();
+        Batch batch = this.deferred ? null : this.batches.get();
+        if (batch != null) batch.meta = true;
+        else if (this.deferred) {
+            this.pendingMeta.set(true);
+            scheduleFlush();
+        } else sendMetaUpdate();
+    }
+
+    // records changes applied to the members, with the version create packets built afterwards reflect
+    private void changed(@NotNull Collection<TeamMember> members, boolean added) {
+        long version = this.version.incrementAndGet();
+        for (TeamMember member : members) {
+            Change change = this.pendingMembers.get(member);
+            if (change == null) this.pendingMembers.put(member, new Change(!added, version));
+            else change.last = version;
+        }
+        invalidateCreatePackets();
+    }
+
+    // sends changes right away, unless a batch holds them or the team is deferred
+    private void dispatch(@NotNull Collection<TeamMember> members) {
+        if (this.deferred) {
+            scheduleFlush();
+            return;
+        }
+        Batch batch = this.batches.get();
+        if (batch != null) batch.members.addAll(members);
+        else sendChanges(members);
+    }
+
+    private void scheduleFlush() {
+        // batches flush themselves, only deferred teams need the scheduler
+        if (!this.deferred || !this.flushScheduled.compareAndSet(false, true)) return;
+        MinecraftServer.getSchedulerManager().scheduleNextTick(() -> {
+            this.flushScheduled.set(false);
+            flush();
+        });
+    }
+
+    // sends the changes of a deferred team, or those held by a batch on the current thread
+    private void flush() {
+        if (this.deferred) {
+            if (this.pendingMeta.compareAndSet(true, false)) sendMetaUpdate();
+            if (!this.pendingMembers.isEmpty()) sendChanges(List.copyOf(this.pendingMembers.keySet()));
+            return;
+        }
+        Batch batch = this.batches.get();
+        if (batch == null) return;
+        if (batch.meta) {
+            batch.meta = false;
+            sendMetaUpdate();
+        }
+        if (batch.members.isEmpty()) return;
+        List<TeamMember> members = List.copyOf(batch.members);
+        batch.members.clear();
+        sendChanges(members);
+    }
+
+    // sends the pending changes of the given members under their locks, so no other change comes in between
+    private void sendChanges(@NotNull Collection<TeamMember> members) {
+        long locks = MemberLocks.lock(members);
+        try {
+            List<MemberChange> changes = new ArrayList<>(members.size());
+            for (TeamMember member : members) {
+                Change change = this.pendingMembers.remove(member);
+                if (change != null) changes.add(new MemberChange(member.getId(), change.before, change.first, change.last, this.members.contains(member)));
+            }
+            if (!changes.isEmpty()) sendMemberChanges(changes);
+        } finally {
+            MemberLocks.unlock(locks);
+        }
+    }
+
+    private void sendMemberChanges(@NotNull List<MemberChange> changes) {
+        List<String> additions = new ArrayList<>();
+        List<String> removals = new ArrayList<>();
+        long first = Long.MAX_VALUE;
+        for (MemberChange change : changes) {
+            first = Math.min(first, change.first());
+            if (change.before() != change.now()) (change.now() ? additions : removals).add(change.id());
+        }
+        // viewers are told about members once they come into range, create packets carry none
+        if (this.interest != null) {
+            if (!removals.isEmpty()) this.interest.removed(removals);
+            if (!additions.isEmpty()) this.interest.added(additions);
+            return;
+        }
+
+        List<Player> held = holdForJoining((player, joining) -> () -> catchUp(player, joining.joined, changes));
+        // viewers that joined before every change know the state before them, the rest are caught up one by one
+        List<Player> common = new ArrayList<>(this.viewers.size());
+        for (Map.Entry<Player, Long> viewer : this.viewers.entrySet()) {
+            Player player = viewer.getKey();
+            if (!held.isEmpty() && held.contains(player)) continue;
+            if (viewer.getValue() < first && (this.streams == null || !this.streams.isStreaming(player))) common.add(player);
+            else catchUp(player, viewer.getValue(), changes);
+        }
+        if (common.isEmpty()) return;
+        if (!removals.isEmpty()) deliver(common, new TeamsPacket(this.name, new TeamsPacket.RemoveEntitiesToTeamAction(removals)));
+        if (!additions.isEmpty()) deliver(common, new TeamsPacket(this.name, new TeamsPacket.AddEntitiesToTeamAction(additions)));
+    }
+
+    // brings a viewer whose create packet was built at the given version up to date
+    private void catchUp(@NotNull Player player, long joined, @NotNull List<MemberChange> changes) {
+        if (this.streams != null && this.streams.isStreaming(player)) {
+            // nothing is streamed to the viewer meanwhile
+            this.streams.paused(player, () -> catchUp(player, joined, changes, true));
+        } else {
+            catchUp(player, joined, changes, false);
+        }
+    }
+
+    private void catchUp(@NotNull Player player, long joined, @NotNull List<MemberChange> changes, boolean streaming) {
+        List<String> removals = new ArrayList<>();
+        List<String> additions = new ArrayList<>();
+        List<String> trailing = new ArrayList<>();
+        for (MemberChange change : changes) {
+            // members not streamed yet are streamed in their latest state, or not at all
+            if (streaming && this.streams.unsent(player, change.id(), change.now())) continue;
+            // the create packet already had the latest state
+            if (joined >= change.last()) continue;
+            if (joined < change.first()) {
+                if (change.before() != change.now()) (change.now() ? additions : removals).add(change.id());
+                continue;
+            }
+            // the create packet had a state in between, adding first makes the removal valid either way
+            additions.add(change.id());
+            if (!change.now()) trailing.add(change.id());
+        }
+        if (!removals.isEmpty()) sendPacket(player, new TeamsPacket(this.name, new TeamsPacket.RemoveEntitiesToTeamAction(removals)));
+        if (!additions.isEmpty()) sendPacket(player, new TeamsPacket(this.name, new TeamsPacket.AddEntitiesToTeamAction(additions)));
+        if (!trailing.isEmpty()) sendPacket(player, new TeamsPacket(this.name, new TeamsPacket.RemoveEntitiesToTeamAction(trailing)));
+    }
+
+    // holds packets for players whose create packet is still being sent, returning those players
+    private @NotNull List<Player> holdForJoining(@NotNull BiFunction<Player, Joining, Runnable> send) {
+        if (this.joining.isEmpty()) return List.of();
+        List<Player> held = new ArrayList<>();
+        for (Map.Entry<Player, Joining> entry : this.joining.entrySet()) {
+            if (entry.getValue().hold(send.apply(entry.getKey(), entry.getValue()))) held.add(entry.getKey());
+        }
+        return held;
+    }
+
+    // the state of a member that viewers joined before the first change know, and the versions of its first and last change
+    private static final class Change {
+
+        private final boolean before;
+        private final long first;
+        private long last;
+
+        private Change(boolean before, long version) {
+            this.before = before;
+            this.first = version;
+            this.last = version;
+        }
+
+    }
+
+    private record MemberChange(@NotNull String id, boolean before, long first, long last, boolean now) {
+
+    }
+
+    private static final class Batch {
+
+        // only touched by the thread running the batch
+        private final @NotNull Set<TeamMember> members = new LinkedHashSet<>();
+        private boolean meta = false;
+        private int depth = 0;
+
+    }
+
+    private static @NotNull List<String> ids(@NotNull Collection<TeamMember> members) {
+        List<String> ids = new ArrayList<>(members.size());
+        for (TeamMember member : members) ids.add(member.getId());
+        return ids;
+    }
+
+    private @NotNull List<String> memberIds() {
+        return this.members instanceof EntityIdMemberSet set ? set.ids() : ids(this.members);
+    }
+
+    private void invalidateCreatePackets() {
+        this.createPackets = new ConcurrentHashMap<>();
+    }
+
+    private @NotNull CreatePacket createPacket(@NotNull Player player) {
+        TeamMeta meta = resolveMeta(player, this.meta.get());
+        if (this.streams != null) {
+            // large teams send a bounded slice of members that differs per viewer, so it is not cached
+            MemberSnapshot snapshot = snapshot();
+            return new CreatePacket(new TeamsPacket(this.name, createCreateAction(meta, this.streams.start(player, snapshot.ids()))), snapshot.version());
+        }
+        return this.createPackets.computeIfAbsent(meta, key -> {
+            MemberSnapshot snapshot = this.interest != null ? new MemberSnapshot(List.of(), this.version.get()) : snapshot();
+            return new CreatePacket(new CachedPacket(() -> new TeamsPacket(this.name, createCreateAction(key, snapshot.ids()))), snapshot.version());
+        });
+    }
+
+    // the member ids and the version they reflect, taken again while a change is being applied
+    private @NotNull MemberSnapshot snapshot() {
+        while (true) {
+            long version = this.version.get();
+            if (this.applying.get() == 0) {
+                List<String> ids = memberIds();
+                if (this.applying.get() == 0 && this.version.get() == version) return new MemberSnapshot(ids, version);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private record MemberSnapshot(@NotNull List<String> ids, long version) {
+
+    }
+
+    private record CreatePacket(@NotNull SendablePacket packet, long version) {
+
+    }
+
+    private @NotNull TeamMeta resolveMeta(@NotNull Player player, @NotNull TeamMeta meta) {
+        TeamMeta resolved = this.metaResolver == null ? meta : this.metaResolver.apply(player, meta);
+        if (!this.localized) return resolved;
+
+        Locale locale = player.getLocale();
+        if (locale == null) locale = Locale.US;
+        return this.localizedMetas.computeIfAbsent(new LocalizedMeta(resolved, locale), LocalizedMeta::render);
+    }
+
+    private void sendMetaUpdate() {
+        TeamMeta meta = this.meta.get();
+        if (this.metaResolver == null && !this.localized) {
+            // components translated per viewer by minestom cannot use pre-serialized fields
+            CachedPacket frame = this.framePackets.get(meta);
+            if (frame != null) sendToViewers(frame);
+            else if (MinestomAdventure.AUTOMATIC_COMPONENT_TRANSLATION) sendToViewers(new TeamsPacket(this.name, createUpdateAction(meta)));
+            else sendToViewers(this.updates.encode(meta));
+            return;
+        }
+
+        // one packet per variant, shared by every viewer that sees it
+        List<Player> held = holdForJoining((player, joining) -> () -> sendUpdate(player, meta));
+        Map<TeamMeta, List<Player>> variants = new HashMap<>();
+        for (Player viewer : this.viewers.keySet()) {
+            if (!held.isEmpty() && held.contains(viewer)) continue;
+            variants.computeIfAbsent(resolveMeta(viewer, meta), key -> new ArrayList<>()).add(viewer);
+        }
+        variants.forEach((variant, players) -> deliver(players, new TeamsPacket(this.name, createUpdateAction(variant))));
+    }
+
+    private void sendUpdate(@NotNull Player player, @NotNull TeamMeta meta) {
+        sendPacket(player, new TeamsPacket(this.name, createUpdateAction(resolveMeta(player, meta))));
+    }
+
+    // packets for joining players are held until their create packet was sent
+    private void sendToViewers(@NotNull SendablePacket packet) {
+        List<Player> held = holdForJoining((player, joining) -> () -> sendPacket(player, packet));
+        if (held.isEmpty()) {
+            deliver(this.viewers.keySet(), packet);
+            return;
+        }
+        List<Player> players = new ArrayList<>(this.viewers.size());
+        for (Player viewer : this.viewers.keySet()) {
+            if (!held.contains(viewer)) players.add(viewer);
+        }
+        deliver(players, packet);
+    }
+
+    private void deliver(@NotNull Collection<Player> players, @NotNull SendablePacket packet) {
+        PacketFanOut queue = this.fanOut != null ? this.fanOut : this.detour;
+        if (queue != null) {
+            // encoded once by whichever connection writes it first, then shared by every viewer
+            queue.send(List.copyOf(players), packet instanceof ServerPacket serverPacket ? new CachedPacket(serverPacket) : packet);
+        } else if (packet instanceof ServerPacket serverPacket) {
+            PacketUtils.sendGroupedPacket(players, serverPacket);
+        } else {
+            for (Player player : players) player.sendPacket(packet);
+        }
+    }
+
+    private void sendPacket(@NotNull Player player, @NotNull SendablePacket packet) {
+        PacketFanOut queue = this.fanOut != null ? this.fanOut : this.detour;
+        if (queue == null) {
+            player.sendPacket(packet);
+            return;
+        }
+        // cached packets build lazily, so they are built now to capture the current state
+        if (packet instanceof CachedPacket cached) cached.body();
+        queue.send(player, packet);
+    }
+
+    private @NotNull TeamsPacket.CreateTeamAction createCreateAction(@NotNull TeamMeta meta, @NotNull List<String> ids) {
         return new TeamsPacket.CreateTeamAction(
-                this.meta.displayName(),
-                createFriendlyFlags(this.meta),
-                this.meta.tagVisibility().visibility(),
-                this.meta.collisionRule().rule(),
-                this.meta.color(),
-                this.meta.prefix(),
-                this.meta.suffix(),
-                this.members.stream()
-                        .map(TeamMember::getId)
-                        .collect(Collectors.toSet())
+                meta.displayName(),
+                createFriendlyFlags(meta),
+                meta.tagVisibility().visibility(),
+                meta.collisionRule().rule(),
+                meta.color(),
+                meta.prefix(),
+                meta.suffix(),
+                ids
         );
     }
 
-    private @NotNull TeamsPacket.UpdateTeamAction createUpdateAction() {
+    private @NotNull TeamsPacket.UpdateTeamAction createUpdateAction(@NotNull TeamMeta meta) {
         return new TeamsPacket.UpdateTeamAction(
-                this.meta.displayName(),
-                createFriendlyFlags(this.meta),
-                this.meta.tagVisibility().visibility(),
-                this.meta.collisionRule().rule(),
-                this.meta.color(),
-                this.meta.prefix(),
-                this.meta.suffix()
+                meta.displayName(),
+                createFriendlyFlags(meta),
+                meta.tagVisibility().visibility(),
+                meta.collisionRule().rule(),
+                meta.color(),
+                meta.prefix(),
+                meta.suffix()
         );
     }
 
-    private byte createFriendlyFlags(@NotNull TeamMeta meta) {
+    static byte createFriendlyFlags(@NotNull TeamMeta meta) {
         byte flags = 0x00;
         if (meta.allowFriendlyFire()) flags |= 0x01;
         if (meta.canSeeFriendlyInvisibles()) flags |= 0x02;
         return flags;
     }
 
+    private record LocalizedMeta(@NotNull TeamMeta meta, @NotNull Locale locale) {
+
+        @NotNull TeamMeta render() {
+            return new TeamMetaImpl.BuilderImpl(this.meta)
+                    .prefix(MinestomAdventure.COMPONENT_TRANSLATOR.apply(this.meta.prefix(), this.locale))
+                    .suffix(MinestomAdventure.COMPONENT_TRANSLATOR.apply(this.meta.suffix(), this.locale))
+                    .displayName(MinestomAdventure.COMPONENT_TRANSLATOR.apply(this.meta.displayName(), this.locale))
+                    .build();
+        }
+
+    }
+
+    static final class BuilderImpl implements Team.Builder {
+
+        private final @NotNull String name;
+        private boolean deferred = false;
+        private boolean autoEvict = false;
+        private boolean compactMembers = false;
+        private @Nullable BiFunction<Player, TeamMeta, TeamMeta> metaResolver = null;
+        private boolean localized = false;
+        private int chunkSize = 0;
+        private int chunksPerTick = 0;
+        private boolean interestManaged = false;
+        private @Nullable Executor packetExecutor = null;
+
+        BuilderImpl(@NotNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public @NotNull Team build() {
+            if (this.interestManaged && this.chunkSize > 0) throw new IllegalStateException("Interest managed teams cannot send members in chunks");
+            if (this.packetExecutor != null && (this.interestManaged || this.chunkSize > 0)) throw new IllegalStateException("Teams sending packets asynchronously cannot be interest managed or send members in chunks");
+            return new TeamImpl(this);
+        }
+
+        @Override
+        public @NotNull Builder deferred(boolean deferred) {
+            this.deferred = deferred;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder autoEvict(boolean autoEvict) {
+            this.autoEvict = autoEvict;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder compactMembers(boolean compactMembers) {
+            this.compactMembers = compactMembers;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder metaResolver(@NotNull BiFunction<Player, TeamMeta, TeamMeta> resolver) {
+            this.metaResolver = resolver;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder localized(boolean localized) {
+            this.localized = localized;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder chunkedMembers(int chunkSize, int chunksPerTick) {
+            if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be positive");
+            if (chunksPerTick < 1) throw new IllegalArgumentException("chunksPerTick must be positive");
+            this.chunkSize = chunkSize;
+            this.chunksPerTick = chunksPerTick;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder interestManaged(boolean interestManaged) {
+            this.interestManaged = interestManaged;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder asyncPackets(boolean asyncPackets) {
+            this.packetExecutor = asyncPackets ? PacketFanOut.sharedExecutor() : null;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder asyncPackets(@NotNull Executor executor) {
+            this.packetExecutor = executor;
+            return this;
+        }
+
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.Event;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.entity.EntityDespawnEvent;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Removes members and viewers from auto-evicting teams once their entity is
+ * removed or their player disconnects. A single listener serves every team,
+ * removals are collected and purged once per tick.
+ */
+final class TeamLifecycle {
+
+    private static final @NotNull Set<TeamImpl> TEAMS = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final @NotNull AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    private static final @NotNull Set<Entity> REMOVED = ConcurrentHashMap.newKeySet();
+    private static final @NotNull AtomicBoolean PURGE_SCHEDULED = new AtomicBoolean();
+
+    private TeamLifecycle() {
+
+    }
+
+    static void register(@NotNull TeamImpl team) {
+        synchronized (TEAMS) {
+            TEAMS.add(team);
+        }
+        if (!REGISTERED.compareAndSet(false, true)) return;
+
+        EventNode<Event> node = EventNode.all("minestom-teams-lifecycle");
+        node.addListener(PlayerDisconnectEvent.class, event -> removed(event.getPlayer()));
+        node.addListener(EntityDespawnEvent.class, event -> removed(event.getEntity()));
+        MinecraftServer.getGlobalEventHandler().addChild(node);
+    }
+
+    private static void removed(@NotNull Entity entity) {
+        REMOVED.add(entity);
+        if (!PURGE_SCHEDULED.compareAndSet(false, true)) return;
+        MinecraftServer.getSchedulerManager().scheduleNextTick(TeamLifecycle::purge);
+    }
+
+    private static void purge() {
+        PURGE_SCHEDULED.set(false);
+
+        List<TeamMember> members = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (Entity entity : REMOVED) {
+            if (!REMOVED.remove(entity)) continue;
+            members.add(TeamMember.of(entity));
+            if (entity instanceof Player player) players.add(player);
+        }
+        if (members.isEmpty()) return;
+
+        List<TeamImpl> teams;
+        synchronized (TEAMS) {
+            teams = new ArrayList<>(TEAMS);
+        }
+        for (TeamImpl team : teams) {
+            team.purgeMembers(members);
+            team.evictViewers(players);
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.Event;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.player.PlayerSettingsChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends localized teams again to viewers whose client settings changed. A
+ * viewer added before its settings arrived was sent the default locale, this
+ * corrects it once the client reports its own.
+ */
+final class TeamLocales {
+
+    private static final @NotNull Set<TeamImpl> TEAMS = Collections.newSetFromMap(new WeakHashMap<>());
+    private static final @NotNull AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    private TeamLocales() {
+
+    }
+
+    static void register(@NotNull TeamImpl team) {
+        synchronized (TEAMS) {
+            TEAMS.add(team);
+        }
+        if (!REGISTERED.compareAndSet(false, true)) return;
+
+        EventNode<Event> node = EventNode.all("minestom-teams-locales");
+        node.addListener(PlayerSettingsChangeEvent.class, event -> refresh(event.getPlayer()));
+        MinecraftServer.getGlobalEventHandler().addChild(node);
+    }
+
+    private static void refresh(@NotNull Player player) {
+        List<TeamImpl> teams;
+        synchronized (TEAMS) {
+            teams = new ArrayList<>(TEAMS);
+        }
+        // teams the player does not view ignore it
+        for (TeamImpl team : teams) team.refreshViewer(player);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.Collection;
+import java.util.function.Function;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.trait.EntityEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Represents a registry of {@link Team}s. A member can only be on one team
+ * of a manager at a time, adding it to another team moves it there.
+ */
+public sealed interface TeamManager permits TeamManagerImpl {
+
+    /**
+     * Creates a new, empty {@link TeamManager}.
+     * @return The new {@link TeamManager}.
+     */
+    static @NotNull TeamManager create() {
+        return new TeamManagerImpl();
+    }
+
+    /**
+     * Creates a new team owned by this manager.
+     * @param name The name of the team.
+     * @return The new team.
+     * @throws IllegalArgumentException if a team with the given name already exists.
+     */
+    default @NotNull Team createTeam(@NotNull String name) {
+        return createTeam(name, Function.identity());
+    }
+
+    /**
+     * Creates a new team owned by this manager.
+     * @param name The name of the team.
+     * @param team function to apply changes to a team builder.
+     * @return The new team.
+     * @throws IllegalArgumentException if a team with the given name already exists.
+     */
+    @NotNull Team createTeam(@NotNull String name, @NotNull Function<Team.@NotNull Builder, Team.@NotNull Builder> team);
+
+    /**
+     * Removes a team from this manager. The team keeps its members and viewers,
+     * but is no longer tracked by this manager.
+     * @param team The team to remove.
+     * @return true if the team was removed, false if it was not owned by this manager.
+     */
+    boolean removeTeam(@NotNull Team team);
+
+    /**
+     * Gets a team by its name.
+     * @param name The name of the team.
+     * @return The team, or null if no team with the given name exists.
+     */
+    @Nullable Team getTeam(@NotNull String name);
+
+    /**
+     * Gets the team a member is on.
+     * @param member The member.
+     * @return The team, or null if the member is not on a team of this manager.
+     */
+    @Nullable Team getTeam(@NotNull TeamMember member);
+
+    /**
+     * Gets the team an entity is on.
+     * @param entity The entity.
+     * @return The team, or null if the entity is not on a team of this manager.
+     */
+    @Nullable Team getTeam(@NotNull Entity entity);
+
+    /**
+     * Checks whether two entities are on the same team of this manager.
+     * @param first The first entity.
+     * @param second The second entity.
+     * @return true if both entities are on the same team, false otherwise.
+     */
+    boolean areTeammates(@NotNull Entity first, @NotNull Entity second);
+
+    /**
+     * Checks whether two entities should collide, following the
+     * {@link CollisionRule}s of their teams. Entities that are not on a team
+     * of this manager use {@link CollisionRule#ALWAYS}. Meant to be called
+     * from entity physics, such as custom pushing logic.
+     * @param first The first entity.
+     * @param second The second entity.
+     * @return true if the entities should collide, false otherwise.
+     */
+    boolean canCollide(@NotNull Entity first, @NotNull Entity second);
+
+    /**
+     * Creates an event node that cancels damage dealt by an entity to a
+     * teammate when their team does not allow friendly fire. The node has
+     * to be added to an event node to take effect.
+     * @return The new event node.
+     */
+    @NotNull EventNode<EntityEvent> friendlyFireNode();
+
+    /**
+     * Adds a player as a viewer of every team owned by this manager, such as
+     * when the player joins. The create packets of teams that look the same
+     * to every viewer are sent as one pre-encoded bundle the client applies
+     * at once. The bundle is cached, only teams that changed since it was
+     * built are encoded again. The player becomes a viewer once the bundle
+     * was sent, so no change to a team reaches them before the team itself.
+     * @param player The player to add.
+     */
+    void addViewerToAll(@NotNull Player player);
+
+    /**
+     * Gets the teams owned by this manager.
+     * @return The teams owned by this manager.
+     */
+    @NotNull @Unmodifiable Collection<Team> getTeams();
+
+}
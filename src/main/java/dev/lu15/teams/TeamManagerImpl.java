@@ -0,0 +1,279 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.EventFilter;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.entity.EntityDamageEvent;
+import net.minestom.server.event.trait.EntityEvent;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.FramedPacket;
+import net.minestom.server.network.packet.server.play.BundlePacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+final class TeamManagerImpl implements TeamManager {
+
+    private final @NotNull Map<String, TeamImpl> teams = new ConcurrentHashMap<>();
+    // keyed by member id, so a player and a named member with their username are one member
+    private final @NotNull Map<String, Membership> memberTeams = new ConcurrentHashMap<>();
+
+    // set while the manager is replicated, guarded by the manager
+    volatile @Nullable TeamReplicatorImpl replicator;
+
+    // the client rejects bundles with more packets than this
+    private static final int MAX_BUNDLE_SIZE = 4096;
+    private static final @NotNull CachedPacket BUNDLE_DELIMITER = new CachedPacket(new BundlePacket());
+
+    // the create packets last sent to a joining player, encoded as a single buffer
+    private volatile @Nullable Bundle bundle;
+
+    @Override
+    public @NotNull Team createTeam(@NotNull String name, @NotNull Function<Team.Builder, Team.Builder> team) {
+        TeamImpl.BuilderImpl builder = new TeamImpl.BuilderImpl(name);
+        TeamImpl created = (TeamImpl) team.apply(builder).build();
+        if (this.teams.putIfAbsent(name, created) != null) throw new IllegalArgumentException("A team named " + name + " already exists");
+        created.manager = this;
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.created(name);
+        return created;
+    }
+
+    @Override
+    public boolean removeTeam(@NotNull Team team) {
+        if (!(team instanceof TeamImpl impl) || !this.teams.remove(team.getName(), impl)) return false;
+        impl.manager = null;
+        for (TeamMember member : impl.getMembers()) this.memberTeams.remove(member.getId(), new Membership(impl, member));
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.removed(team.getName());
+        return true;
+    }
+
+    @Override
+    public @Nullable Team getTeam(@NotNull String name) {
+        return this.teams.get(name);
+    }
+
+    @Override
+    public @Nullable Team getTeam(@NotNull TeamMember member) {
+        return team(member.getId());
+    }
+
+    @Override
+    public @Nullable Team getTeam(@NotNull Entity entity) {
+        return team(id(entity));
+    }
+
+    @Override
+    public boolean areTeammates(@NotNull Entity first, @NotNull Entity second) {
+        TeamImpl team = team(id(first));
+        return team != null && team == team(id(second));
+    }
+
+    @Override
+    public boolean canCollide(@NotNull Entity first, @NotNull Entity second) {
+        TeamImpl firstTeam = team(id(first));
+        TeamImpl secondTeam = team(id(second));
+        CollisionRule firstRule = firstTeam == null ? CollisionRule.ALWAYS : firstTeam.getMeta().collisionRule();
+        CollisionRule secondRule = secondTeam == null ? CollisionRule.ALWAYS : secondTeam.getMeta().collisionRule();
+        if (firstRule == CollisionRule.NEVER || secondRule == CollisionRule.NEVER) return false;
+
+        boolean sameTeam = firstTeam != null && firstTeam == secondTeam;
+        if ((firstRule == CollisionRule.PUSH_OWN_TEAM || secondRule == CollisionRule.PUSH_OWN_TEAM) && !sameTeam) return false;
+        return (firstRule != CollisionRule.PUSH_OTHER_TEAMS && secondRule != CollisionRule.PUSH_OTHER_TEAMS) || !sameTeam;
+    }
+
+    @Override
+    public @NotNull EventNode<EntityEvent> friendlyFireNode() {
+        EventNode<EntityEvent> node = EventNode.type("minestom-teams-friendly-fire", EventFilter.ENTITY);
+        node.addListener(EntityDamageEvent.class, event -> {
+            Entity attacker = event.getDamage().getAttacker();
+            if (attacker == null || attacker == event.getEntity()) return;
+
+            TeamImpl team = team(id(event.getEntity()));
+            if (team == null || team != team(id(attacker))) return;
+            if (!team.getMeta().allowFriendlyFire()) event.setCancelled(true);
+        });
+        return node;
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Collection<Team> getTeams() {
+        return Collections.unmodifiableCollection(this.teams.values());
+    }
+
+    @Override
+    public void addViewerToAll(@NotNull Player player) {
+        List<TeamImpl.BundledViewer> joins = new ArrayList<>(this.teams.size());
+        for (TeamImpl team : this.teams.values()) {
+            if (!team.isBundleable()) {
+                team.addViewer(player);
+                continue;
+            }
+            TeamImpl.BundledViewer join = team.addBundledViewer(player);
+            if (join != null) joins.add(join);
+        }
+        if (joins.isEmpty()) return;
+
+        List<CachedPacket> parts = new ArrayList<>(joins.size());
+        for (TeamImpl.BundledViewer join : joins) parts.add(join.packet());
+        // cached packets are replaced when their team changes, so an equal list means nothing changed
+        Bundle bundle = this.bundle;
+        if (bundle == null || !bundle.parts().equals(parts)) {
+            bundle = Bundle.encode(parts);
+            this.bundle = bundle;
+        }
+        bundle.send(player);
+        // viewers are added once the teams exist for them, so no change reaches them first
+        for (TeamImpl.BundledViewer join : joins) join.show(player);
+    }
+
+    // called before the team tells its viewers, so the previous team removes the members first
+    void membersAdded(@NotNull Collection<TeamMember> members, @NotNull TeamImpl team) {
+        Map<TeamImpl, List<TeamMember>> moved = null;
+        for (TeamMember member : members) {
+            Membership previous = this.memberTeams.put(member.getId(), new Membership(team, member));
+            if (previous == null || previous.team() == team && previous.member().equals(member)) continue;
+            // the previous team may be this one, when it held the member in another form
+            if (moved == null) moved = new HashMap<>();
+            moved.computeIfAbsent(previous.team(), key -> new ArrayList<>()).add(previous.member());
+        }
+        if (moved != null) {
+            for (Map.Entry<TeamImpl, List<TeamMember>> entry : moved.entrySet()) {
+                TeamImpl previous = entry.getKey();
+                previous.evictMembers(entry.getValue());
+                // removals queued by an async team must reach viewers before this team's additions
+                if (previous != team) team.sendAfter(previous);
+            }
+        }
+
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.membersAdded(team.getName(), ids(members));
+    }
+
+    void memberRemoved(@NotNull TeamMember member, @NotNull TeamImpl team) {
+        this.memberTeams.remove(member.getId(), new Membership(team, member));
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.membersRemoved(team.getName(), ids(List.of(member)));
+    }
+
+    // the member as it was added, so removals by id reach the same member
+    @Nullable TeamMember member(@NotNull String id) {
+        Membership membership = this.memberTeams.get(id);
+        return membership == null ? null : membership.member();
+    }
+
+    void metaChanged(@NotNull TeamImpl team) {
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.metaChanged(team.getName(), team.getMeta());
+    }
+
+    void animationStarted(@NotNull TeamImpl team, @NotNull TeamAnimationImpl animation) {
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.animationStarted(team.getName(), animation);
+    }
+
+    void animationStopped(@NotNull TeamImpl team) {
+        TeamReplicatorImpl replicator = this.replicator;
+        if (replicator != null) replicator.animationStopped(team.getName(), team.getMeta());
+    }
+
+    private @Nullable TeamImpl team(@NotNull String id) {
+        Membership membership = this.memberTeams.get(id);
+        return membership == null ? null : membership.team();
+    }
+
+    private static @NotNull String id(@NotNull Entity entity) {
+        return entity instanceof Player player ? player.getUsername() : TeamMember.Entity.id(entity);
+    }
+
+    private record Membership(@NotNull TeamImpl team, @NotNull TeamMember member) {}
+
+    private record Bundle(@NotNull List<CachedPacket> parts, @Nullable ByteBuffer buffer) {
+
+        static @NotNull Bundle encode(@NotNull List<CachedPacket> parts) {
+            ByteBuffer delimiter = BUNDLE_DELIMITER.body();
+            List<ByteBuffer> bodies = new ArrayList<>(parts.size());
+            int size = 0;
+            for (CachedPacket part : parts) {
+                ByteBuffer body = part.body();
+                // packets are not cached when grouped packets are disabled, so they are sent one by one
+                if (body == null || delimiter == null) return new Bundle(parts, null);
+                bodies.add(body);
+                size += body.limit();
+            }
+            int bundles = (parts.size() + MAX_BUNDLE_SIZE - 2) / (MAX_BUNDLE_SIZE - 1);
+            size += bundles * 2 * delimiter.limit();
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+            for (int i = 0; i < bodies.size(); i++) {
+                if (i % (MAX_BUNDLE_SIZE - 1) == 0) {
+                    if (i > 0) buffer.put(delimiter.slice(0, delimiter.limit()));
+                    buffer.put(delimiter.slice(0, delimiter.limit()));
+                }
+                ByteBuffer body = bodies.get(i);
+                buffer.put(body.slice(0, body.limit()));
+            }
+            buffer.put(delimiter.slice(0, delimiter.limit()));
+            return new Bundle(List.copyOf(parts), buffer.flip());
+        }
+
+        void send(@NotNull Player player) {
+            if (this.buffer != null) {
+                player.sendPacket(new FramedPacket(new BundlePacket(), this.buffer));
+                return;
+            }
+            for (int i = 0; i < this.parts.size(); i++) {
+                if (i % (MAX_BUNDLE_SIZE - 1) == 0) {
+                    if (i > 0) player.sendPacket(BUNDLE_DELIMITER);
+                    player.sendPacket(BUNDLE_DELIMITER);
+                }
+                player.sendPacket(this.parts.get(i));
+            }
+            player.sendPacket(BUNDLE_DELIMITER);
+        }
+
+    }
+
+    // a new list each time, the replicator merges consecutive changes into it
+    private static @NotNull List<String> ids(@NotNull Collection<TeamMember> members) {
+        List<String> ids = new ArrayList<>(members.size());
+        for (TeamMember member : members) ids.add(member.getId());
+        return ids;
+    }
+
+}
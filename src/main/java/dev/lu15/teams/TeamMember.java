@@ -24,13 +24,18 @@
 
 package dev.lu15.teams;
 
-import java.util.Objects;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
+import net.minestom.server.tag.Tag;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Represents a member of a {@link Team}.
+ * Represents a member of a {@link Team}. Members are identified by the
+ * {@link UUID} of their entity, or by their id if they have no entity.
+ * A {@link TeamManager} treats members with the same id, such as a player
+ * and a named member with their username, as the same member.
  */
 public sealed interface TeamMember extends ForwardingAudience.Single {
 
@@ -44,12 +49,29 @@ public sealed interface TeamMember extends ForwardingAudience.Single {
         return new Entity(entity);
     }
 
+    /**
+     * Creates a new {@link TeamMember} that is not backed by a local entity,
+     * such as a player on another server.
+     * @param id The ID of the member, a username or an entity UUID.
+     * @return The new {@link TeamMember}.
+     */
+    static @NotNull TeamMember of(@NotNull String id) {
+        return new Named(id);
+    }
+
     /**
      * Gets the ID of this member.
      * @return The ID of this member.
      */
     @NotNull String getId();
 
+    /**
+     * Gets the UUID of this member's entity. Members without an entity use
+     * a UUID derived from their ID.
+     * @return The UUID of this member's entity.
+     */
+    @NotNull UUID getUuid();
+
     record Player(@NotNull net.minestom.server.entity.Player player) implements TeamMember {
 
         @Override
@@ -57,6 +79,11 @@ public sealed interface TeamMember extends ForwardingAudience.Single {
             return this.player.getUsername();
         }
 
+        @Override
+        public @NotNull UUID getUuid() {
+            return this.player.getUuid();
+        }
+
         @Override
         public @NotNull Audience audience() {
             return this.player;
@@ -67,21 +94,38 @@ public sealed interface TeamMember extends ForwardingAudience.Single {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Player player1 = (Player) o;
-            return Objects.equals(player, player1.player);
+            return getUuid().equals(player1.getUuid());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(player);
+            return getUuid().hashCode();
         }
 
     }
 
     record Entity(@NotNull net.minestom.server.entity.Entity entity) implements TeamMember {
 
+        // the id is stored on the entity so it is only computed once per entity
+        private static final @NotNull Tag<String> ID = Tag.Transient("minestom-teams:id");
+
         @Override
         public @NotNull String getId() {
-            return this.entity.getUuid().toString();
+            return id(this.entity);
+        }
+
+        static @NotNull String id(@NotNull net.minestom.server.entity.Entity entity) {
+            String id = entity.getTag(ID);
+            if (id == null) {
+                id = entity.getUuid().toString();
+                entity.setTag(ID, id);
+            }
+            return id;
+        }
+
+        @Override
+        public @NotNull UUID getUuid() {
+            return this.entity.getUuid();
         }
 
         @Override
@@ -94,12 +138,35 @@ public sealed interface TeamMember extends ForwardingAudience.Single {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             Entity entity1 = (Entity) o;
-            return Objects.equals(entity, entity1.entity);
+            return getUuid().equals(entity1.getUuid());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(entity);
+            return getUuid().hashCode();
+        }
+
+    }
+
+    record Named(@NotNull String id, @NotNull UUID uuid) implements TeamMember {
+
+        public Named(@NotNull String id) {
+            this(id, UUID.nameUUIDFromBytes(id.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override
+        public @NotNull String getId() {
+            return this.id;
+        }
+
+        @Override
+        public @NotNull UUID getUuid() {
+            return this.uuid;
+        }
+
+        @Override
+        public @NotNull Audience audience() {
+            return Audience.empty(); // Not on this server
         }
 
     }
@@ -24,20 +24,174 @@
 
 package dev.lu15.teams;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.jetbrains.annotations.NotNull;
 
-record TeamMetaImpl(
-        @NotNull CollisionRule collisionRule,
-        @NotNull TagVisibility tagVisibility,
-        @NotNull Component prefix,
-        @NotNull Component suffix,
-        @NotNull Component displayName,
-        @NotNull NamedTextColor color,
-        boolean allowFriendlyFire,
-        boolean canSeeFriendlyInvisibles
-) implements TeamMeta {
+/**
+ * Metas are interned when built, so equal metas are the same instance and
+ * compare by reference. The structural hash is computed once per instance
+ * and interning takes no global lock.
+ */
+final class TeamMetaImpl implements TeamMeta {
+
+    // canonical instances, held weakly so metas no longer used can be collected
+    private static final @NotNull Map<Interned, Interned> POOL = new ConcurrentHashMap<>();
+    private static final @NotNull ReferenceQueue<TeamMetaImpl> COLLECTED = new ReferenceQueue<>();
+
+    private final @NotNull CollisionRule collisionRule;
+    private final @NotNull TagVisibility tagVisibility;
+    private final @NotNull Component prefix;
+    private final @NotNull Component suffix;
+    private final @NotNull Component displayName;
+    private final @NotNull NamedTextColor color;
+    private final boolean allowFriendlyFire;
+    private final boolean canSeeFriendlyInvisibles;
+    private final int hash;
+
+    private TeamMetaImpl(
+            @NotNull CollisionRule collisionRule,
+            @NotNull TagVisibility tagVisibility,
+            @NotNull Component prefix,
+            @NotNull Component suffix,
+            @NotNull Component displayName,
+            @NotNull NamedTextColor color,
+            boolean allowFriendlyFire,
+            boolean canSeeFriendlyInvisibles
+    ) {
+        this.collisionRule = collisionRule;
+        this.tagVisibility = tagVisibility;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.displayName = displayName;
+        this.color = color;
+        this.allowFriendlyFire = allowFriendlyFire;
+        this.canSeeFriendlyInvisibles = canSeeFriendlyInvisibles;
+        int hash = collisionRule.hashCode();
+        hash = 31 * hash + tagVisibility.hashCode();
+        hash = 31 * hash + prefix.hashCode();
+        hash = 31 * hash + suffix.hashCode();
+        hash = 31 * hash + displayName.hashCode();
+        hash = 31 * hash + color.hashCode();
+        hash = 31 * hash + Boolean.hashCode(allowFriendlyFire);
+        this.hash = 31 * hash + Boolean.hashCode(canSeeFriendlyInvisibles);
+    }
+
+    private static @NotNull TeamMetaImpl intern(@NotNull TeamMetaImpl meta) {
+        for (Reference<? extends TeamMetaImpl> collected; (collected = COLLECTED.poll()) != null; ) POOL.remove(collected, collected);
+
+        Interned interned = new Interned(meta);
+        while (true) {
+            Interned existing = POOL.putIfAbsent(interned, interned);
+            if (existing == null) return meta;
+            TeamMetaImpl canonical = existing.get();
+            if (canonical != null) return canonical;
+            // collected but not expunged yet
+            POOL.remove(existing, existing);
+        }
+    }
+
+    // equal to another reference to an equal meta, a cleared reference is only equal to itself
+    private static final class Interned extends WeakReference<TeamMetaImpl> {
+
+        private final int hash;
+
+        Interned(@NotNull TeamMetaImpl meta) {
+            super(meta, COLLECTED);
+            this.hash = meta.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Interned other) || this.hash != other.hash) return false;
+            TeamMetaImpl meta = get();
+            return meta != null && meta.equals(other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+    }
+
+    @Override
+    public @NotNull CollisionRule collisionRule() {
+        return this.collisionRule;
+    }
+
+    @Override
+    public @NotNull TagVisibility tagVisibility() {
+        return this.tagVisibility;
+    }
+
+    @Override
+    public @NotNull Component prefix() {
+        return this.prefix;
+    }
+
+    @Override
+    public @NotNull Component suffix() {
+        return this.suffix;
+    }
+
+    @Override
+    public @NotNull Component displayName() {
+        return this.displayName;
+    }
+
+    @Override
+    public @NotNull NamedTextColor color() {
+        return this.color;
+    }
+
+    @Override
+    public boolean allowFriendlyFire() {
+        return this.allowFriendlyFire;
+    }
+
+    @Override
+    public boolean canSeeFriendlyInvisibles() {
+        return this.canSeeFriendlyInvisibles;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        // distinct canonical instances are never equal, so fields are only compared while interning or on hash collisions
+        if (!(o instanceof TeamMetaImpl other) || this.hash != other.hash) return false;
+        return this.collisionRule == other.collisionRule
+                && this.tagVisibility == other.tagVisibility
+                && this.color == other.color
+                && this.allowFriendlyFire == other.allowFriendlyFire
+                && this.canSeeFriendlyInvisibles == other.canSeeFriendlyInvisibles
+                && this.prefix.equals(other.prefix)
+                && this.suffix.equals(other.suffix)
+                && this.displayName.equals(other.displayName);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TeamMeta[collisionRule=" + this.collisionRule
+                + ", tagVisibility=" + this.tagVisibility
+                + ", prefix=" + this.prefix
+                + ", suffix=" + this.suffix
+                + ", displayName=" + this.displayName
+                + ", color=" + this.color
+                + ", allowFriendlyFire=" + this.allowFriendlyFire
+                + ", canSeeFriendlyInvisibles=" + this.canSeeFriendlyInvisibles + "]";
+    }
 
     static final class BuilderImpl implements TeamMeta.Builder {
 
@@ -67,7 +221,7 @@ record TeamMetaImpl(
 
         @Override
         public @NotNull TeamMeta build() {
-            return new TeamMetaImpl(
+            return intern(new TeamMetaImpl(
                     this.collisionRule,
                     this.tagVisibility,
                     this.prefix,
@@ -76,7 +230,7 @@ record TeamMetaImpl(
                     this.color,
                     this.allowFriendlyFire,
                     this.canSeeFriendlyInvisibles
-            );
+            ));
         }
 
         @Override
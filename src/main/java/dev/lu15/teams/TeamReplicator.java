@@ -0,0 +1,59 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the replication of a {@link TeamManager} across servers. Changes
+ * to the manager's teams are sent as an ordered stream of deltas once per
+ * tick, deltas received from other servers are applied in batches so viewers
+ * receive as few packets as for local changes.
+ */
+public sealed interface TeamReplicator permits TeamReplicatorImpl {
+
+    /**
+     * Starts replicating a manager over a transport. Only changes made after
+     * this call are replicated.
+     * @param manager The manager to replicate.
+     * @param transport The transport to replicate over.
+     * @return The new replicator.
+     * @throws IllegalStateException if the manager is already replicated.
+     */
+    static @NotNull TeamReplicator create(@NotNull TeamManager manager, @NotNull TeamTransport transport) {
+        return new TeamReplicatorImpl((TeamManagerImpl) manager, transport);
+    }
+
+    /**
+     * Sends pending changes right away instead of at the end of the tick.
+     */
+    void flush();
+
+    /**
+     * Stops replicating. Pending changes are sent first.
+     */
+    void close();
+
+}
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/*
+ * Frame layout, big endian: version (byte), origin server (two longs),
+ * sequence (long), delta count (int), deltas.
+ */
+final class TeamReplicatorImpl implements TeamReplicator {
+
+    private static final byte VERSION = 2;
+
+    // set while remote deltas are applied, so they are not sent back out
+    private static final @NotNull ThreadLocal<Boolean> APPLYING = ThreadLocal.withInitial(() -> false);
+
+    private final @NotNull TeamManagerImpl manager;
+    private final @NotNull TeamTransport transport;
+    private final @NotNull UUID origin = UUID.randomUUID();
+
+    private final @NotNull Queue<TeamDelta> pending = new ConcurrentLinkedQueue<>();
+    private final @NotNull AtomicBoolean flushScheduled = new AtomicBoolean();
+    private long sequence = 0;
+    private volatile boolean closed = false;
+
+    // the last sequence applied from each other server
+    private final @NotNull Map<UUID, Long> received = new ConcurrentHashMap<>();
+
+    TeamReplicatorImpl(@NotNull TeamManagerImpl manager, @NotNull TeamTransport transport) {
+        this.manager = manager;
+        this.transport = transport;
+        synchronized (manager) {
+            if (manager.replicator != null) throw new IllegalStateException("Team manager is already replicated");
+            manager.replicator = this;
+        }
+        transport.subscribe(this::receive);
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (this.pending.isEmpty()) return;
+
+        List<TeamDelta> deltas = new ArrayList<>();
+        for (TeamDelta delta; (delta = this.pending.poll()) != null; ) {
+            // consecutive membership changes to the same team travel as one delta
+            TeamDelta last = deltas.isEmpty() ? null : deltas.get(deltas.size() - 1);
+            if (last instanceof TeamDelta.MembersAdded previous && delta instanceof TeamDelta.MembersAdded next && previous.team().equals(next.team())) {
+                previous.ids().addAll(next.ids());
+            } else if (last instanceof TeamDelta.MembersRemoved previous && delta instanceof TeamDelta.MembersRemoved next && previous.team().equals(next.team())) {
+                previous.ids().addAll(next.ids());
+            } else {
+                deltas.add(delta);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(this.origin.getMostSignificantBits());
+            out.writeLong(this.origin.getLeastSignificantBits());
+            out.writeLong(++this.sequence);
+            out.writeInt(deltas.size());
+            for (TeamDelta delta : deltas) delta.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.transport.send(bytes.toByteArray());
+    }
+
+    @Override
+    public void close() {
+        flush();
+        this.closed = true;
+        synchronized (this.manager) {
+            if (this.manager.replicator == this) this.manager.replicator = null;
+        }
+    }
+
+    void created(@NotNull String team) {
+        record(new TeamDelta.Created(team));
+    }
+
+    void removed(@NotNull String team) {
+        record(new TeamDelta.Removed(team));
+    }
+
+    void metaChanged(@NotNull String team, @NotNull TeamMeta meta) {
+        record(new TeamDelta.Meta(team, meta));
+    }
+
+    void membersAdded(@NotNull String team, @NotNull List<String> ids) {
+        record(new TeamDelta.MembersAdded(team, ids));
+    }
+
+    void membersRemoved(@NotNull String team, @NotNull List<String> ids) {
+        record(new TeamDelta.MembersRemoved(team, ids));
+    }
+
+    void animationStarted(@NotNull String team, @NotNull TeamAnimationImpl animation) {
+        record(new TeamDelta.AnimationStarted(team, animation));
+    }
+
+    // other servers may be showing another frame, so the kept one follows the stop
+    void animationStopped(@NotNull String team, @NotNull TeamMeta meta) {
+        record(new TeamDelta.AnimationStopped(team));
+        record(new TeamDelta.Meta(team, meta));
+    }
+
+    private void record(@NotNull TeamDelta delta) {
+        if (this.closed || APPLYING.get()) return;
+        this.pending.add(delta);
+        if (!this.flushScheduled.compareAndSet(false, true)) return;
+        MinecraftServer.getSchedulerManager().scheduleNextTick(() -> {
+            this.flushScheduled.set(false);
+            flush();
+        });
+    }
+
+    private void receive(byte @NotNull [] frame) {
+        if (this.closed) return;
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        byte version = buffer.get();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported team frame version " + version);
+        UUID origin = new UUID(buffer.getLong(), buffer.getLong());
+        if (origin.equals(this.origin)) return;
+
+        // frames that were already applied, e.g. redelivered by the transport, are dropped
+        long sequence = buffer.getLong();
+        Long previous = this.received.get(origin);
+        if (previous != null && sequence <= previous) return;
+        this.received.put(origin, sequence);
+
+        int count = buffer.getInt();
+        List<TeamDelta> deltas = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) deltas.add(TeamDelta.read(buffer));
+        apply(deltas);
+    }
+
+    private void apply(@NotNull List<TeamDelta> deltas) {
+        APPLYING.set(true);
+        try {
+            int start = 0;
+            while (start < deltas.size()) {
+                TeamDelta delta = deltas.get(start);
+                if (delta instanceof TeamDelta.Created created) {
+                    if (this.manager.getTeam(created.team()) == null) this.manager.createTeam(created.team());
+                    start++;
+                } else if (delta instanceof TeamDelta.Removed removed) {
+                    Team team = this.manager.getTeam(removed.team());
+                    if (team != null) this.manager.removeTeam(team);
+                    start++;
+                } else {
+                    // consecutive changes to one team are applied as a batch
+                    int end = start + 1;
+                    while (end < deltas.size() && isChange(deltas.get(end), delta.team())) end++;
+                    applyChanges(delta.team(), deltas.subList(start, end));
+                    start = end;
+                }
+            }
+        } finally {
+            APPLYING.set(false);
+        }
+    }
+
+    private static boolean isChange(@NotNull TeamDelta delta, @NotNull String team) {
+        return !(delta instanceof TeamDelta.Created) && !(delta instanceof TeamDelta.Removed) && delta.team().equals(team);
+    }
+
+    private void applyChanges(@NotNull String name, @NotNull List<TeamDelta> changes) {
+        Team team = this.manager.getTeam(name);
+        if (team == null) team = this.manager.createTeam(name);
+        team.batch(batch -> {
+            for (TeamDelta change : changes) {
+                if (change instanceof TeamDelta.Meta meta) batch.setMeta(meta.meta());
+                else if (change instanceof TeamDelta.MembersAdded added) batch.addMembers(added(added.ids()));
+                else if (change instanceof TeamDelta.MembersRemoved removed) batch.removeMembers(removed(removed.ids()));
+                else if (change instanceof TeamDelta.AnimationStarted started) batch.animate(started.animation());
+                else if (change instanceof TeamDelta.AnimationStopped) batch.stopAnimation();
+            }
+        });
+    }
+
+    // players online on this server are resolved to their entity, anyone else becomes a named member
+    private static @NotNull List<TeamMember> added(@NotNull List<String> ids) {
+        List<TeamMember> members = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUsername(id);
+            members.add(player != null ? TeamMember.of(player) : TeamMember.of(id));
+        }
+        return members;
+    }
+
+    // removals reach the member in whatever form it was added
+    private @NotNull List<TeamMember> removed(@NotNull List<String> ids) {
+        List<TeamMember> members = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            TeamMember member = this.manager.member(id);
+            if (member != null) members.add(member);
+        }
+        return members;
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Represents a binary snapshot of {@link Team}s, storing their names,
+ * metadata and member ids. Snapshots are read through a memory mapped file,
+ * a team's metadata and members are only decoded when requested.
+ */
+public sealed interface TeamSnapshot permits TeamSnapshotImpl {
+
+    /**
+     * Writes a snapshot of the given teams.
+     * @param teams The teams to write.
+     * @param output The stream to write to, left open.
+     * @throws IOException if the snapshot could not be written.
+     */
+    static void write(@NotNull Collection<? extends Team> teams, @NotNull OutputStream output) throws IOException {
+        TeamSnapshotImpl.write(teams, output);
+    }
+
+    /**
+     * Reads a snapshot from a file. Only the layout of the file is checked
+     * here, the body of each team is checked when it is first read.
+     * @param path The file to read.
+     * @return The snapshot.
+     * @throws IOException if the file could not be read or is not a valid snapshot.
+     */
+    static @NotNull TeamSnapshot read(@NotNull Path path) throws IOException {
+        return TeamSnapshotImpl.read(path);
+    }
+
+    /**
+     * Gets the names of the teams in this snapshot.
+     * @return The names of the teams in this snapshot.
+     */
+    @NotNull @Unmodifiable Set<String> getTeamNames();
+
+    /**
+     * Gets the metadata of a team in this snapshot.
+     * @param name The name of the team.
+     * @return The metadata, or null if the team is not in this snapshot.
+     * @throws java.io.UncheckedIOException if the team is corrupt.
+     */
+    @Nullable TeamMeta getMeta(@NotNull String name);
+
+    /**
+     * Gets the member ids of a team in this snapshot.
+     * @param name The name of the team.
+     * @return The member ids, empty if the team is not in this snapshot.
+     * @throws java.io.UncheckedIOException if the team is corrupt.
+     */
+    @NotNull @Unmodifiable List<String> getMemberIds(@NotNull String name);
+
+    /**
+     * Creates every team in this snapshot in the given manager.
+     * @param manager The manager to create the teams in.
+     * @param members function resolving a member id to a member, or null to skip it.
+     * @return The created teams.
+     * @throws IllegalArgumentException if the manager already has a team with the same name.
+     * @throws java.io.UncheckedIOException if a team is corrupt, before any team was created.
+     */
+    @NotNull @Unmodifiable List<Team> restore(@NotNull TeamManager manager, @NotNull Function<@NotNull String, @Nullable TeamMember> members);
+
+}
@@ -0,0 +1,294 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/*
+ * Layout, big endian:
+ *   header: magic (int), version (short)
+ *   teams:  per team, meta followed by member count (int) and member ids
+ *   index:  team count (int), per team its name and the offset of its body (long)
+ *   footer: offset of the index (long), magic (int)
+ * Strings and metadata are encoded by TeamCodec.
+ */
+final class TeamSnapshotImpl implements TeamSnapshot {
+
+    private static final int MAGIC = 0x4D545453; // MTTS
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int COLLISION_RULES = CollisionRule.values().length;
+    private static final int TAG_VISIBILITIES = TagVisibility.values().length;
+
+    // a single mapping cannot exceed this, larger files are mapped in several segments
+    private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+    private final @NotNull Path path;
+    private final @NotNull Map<String, ByteBuffer> bodies;
+    // bodies are validated when first read, so opening a large snapshot stays cheap
+    private final @NotNull Set<String> validated = ConcurrentHashMap.newKeySet();
+
+    private TeamSnapshotImpl(@NotNull Path path, @NotNull Map<String, ByteBuffer> bodies) {
+        this.path = path;
+        this.bodies = bodies;
+    }
+
+    static void write(@NotNull Collection<? extends Team> teams, @NotNull OutputStream output) throws IOException {
+        // counted as a long, DataOutputStream#size stops at two gigabytes
+        CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(output));
+        DataOutputStream out = new DataOutputStream(counter);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        List<String> names = new ArrayList<>(teams.size());
+        List<Long> offsets = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            names.add(team.getName());
+            offsets.add(counter.count);
+            TeamCodec.writeMeta(out, team.getMeta());
+            Set<TeamMember> members = team.getMembers();
+            // copied first so the count matches the ids written, even if the members change meanwhile
+            List<String> ids = new ArrayList<>(members.size());
+            for (TeamMember member : members) ids.add(member.getId());
+            out.writeInt(ids.size());
+            for (String id : ids) TeamCodec.writeString(out, id);
+        }
+
+        long index = counter.count;
+        out.writeInt(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            TeamCodec.writeString(out, names.get(i));
+            out.writeLong(offsets.get(i));
+        }
+        out.writeLong(index);
+        out.writeInt(MAGIC);
+        out.flush();
+    }
+
+    static @NotNull TeamSnapshot read(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + Integer.BYTES + FOOTER_SIZE) throw new IOException("Truncated team snapshot " + path + ", only " + size + " bytes");
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) throw new IOException(path + " is not a team snapshot");
+            short version = header.getShort(Integer.BYTES);
+            if (version != VERSION) throw new IOException("Unsupported team snapshot version " + version + " in " + path);
+
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER_SIZE, FOOTER_SIZE);
+            if (footer.getInt(Long.BYTES) != MAGIC) throw new IOException("Truncated team snapshot " + path + ", footer is missing");
+            long indexOffset = footer.getLong(0);
+            long indexSize = size - FOOTER_SIZE - indexOffset;
+            if (indexOffset < HEADER_SIZE || indexSize < Integer.BYTES) throw new IOException("Corrupt team snapshot " + path + ", index offset " + indexOffset + " is out of bounds");
+            if (indexSize > MAX_SEGMENT_SIZE) throw new IOException("Corrupt team snapshot " + path + ", index of " + indexSize + " bytes is too large");
+
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, indexSize);
+            List<String> names = new ArrayList<>();
+            List<Long> offsets = new ArrayList<>();
+            try {
+                int count = index.getInt();
+                if (count < 0) throw new IOException("Corrupt team snapshot " + path + ", negative team count");
+                long previous = HEADER_SIZE;
+                for (int i = 0; i < count; i++) {
+                    String name = readString(index);
+                    long offset = index.getLong();
+                    // bodies are written in index order
+                    if (offset < previous || offset > indexOffset) throw new IOException("Corrupt team snapshot " + path + ", team " + name + " has offset " + offset + " out of bounds");
+                    names.add(name);
+                    offsets.add(offset);
+                    previous = offset;
+                }
+                if (index.hasRemaining()) throw new IOException("Corrupt team snapshot " + path + ", " + index.remaining() + " unexpected bytes after the index");
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Corrupt team snapshot " + path + ", index is truncated", e);
+            }
+
+            Map<String, ByteBuffer> bodies = new LinkedHashMap<>(names.size() * 2);
+            ByteBuffer segment = null;
+            long segmentStart = 0;
+            for (int i = 0; i < names.size(); i++) {
+                long start = offsets.get(i);
+                long end = i + 1 < names.size() ? offsets.get(i + 1) : indexOffset;
+                if (end - start > MAX_SEGMENT_SIZE) throw new IOException("Team " + names.get(i) + " in " + path + " is too large to be mapped");
+                if (segment == null || end - segmentStart > MAX_SEGMENT_SIZE) {
+                    // maps as many of the following bodies as fit into one segment
+                    segmentStart = start;
+                    long segmentEnd = start;
+                    for (int j = i; j < names.size(); j++) {
+                        long next = j + 1 < names.size() ? offsets.get(j + 1) : indexOffset;
+                        if (next - segmentStart > MAX_SEGMENT_SIZE) break;
+                        segmentEnd = next;
+                    }
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentEnd - segmentStart);
+                }
+                ByteBuffer body = segment.slice((int) (start - segmentStart), (int) (end - start));
+                if (bodies.put(names.get(i), body) != null) throw new IOException("Corrupt team snapshot " + path + ", team " + names.get(i) + " appears twice");
+            }
+            return new TeamSnapshotImpl(path, bodies);
+        }
+    }
+
+    // walks the body without decoding it, so later reads cannot run out of bounds
+    private static void validate(@NotNull ByteBuffer body, @NotNull String name, @NotNull Path path) throws IOException {
+        try {
+            if (Byte.toUnsignedInt(body.get()) >= COLLISION_RULES) throw new IOException("Corrupt team snapshot " + path + ", team " + name + " has an unknown collision rule");
+            if (Byte.toUnsignedInt(body.get()) >= TAG_VISIBILITIES) throw new IOException("Corrupt team snapshot " + path + ", team " + name + " has an unknown tag visibility");
+            skipString(body);
+            body.position(body.position() + 2);
+            for (int i = 0; i < 3; i++) skipString(body);
+            int members = body.getInt();
+            if (members < 0) throw new IOException("Corrupt team snapshot " + path + ", team " + name + " has a negative member count");
+            for (int i = 0; i < members; i++) skipString(body);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt team snapshot " + path + ", team " + name + " is truncated", e);
+        }
+        if (body.hasRemaining()) throw new IOException("Corrupt team snapshot " + path + ", team " + name + " has " + body.remaining() + " unexpected bytes");
+    }
+
+    private static void skipString(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) throw new BufferUnderflowException();
+        buffer.position(buffer.position() + length);
+    }
+
+    private static @NotNull String readString(@NotNull ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public @NotNull @Unmodifiable Set<String> getTeamNames() {
+        return Collections.unmodifiableSet(this.bodies.keySet());
+    }
+
+    @Override
+    public @Nullable TeamMeta getMeta(@NotNull String name) {
+        ByteBuffer body = body(name);
+        return body == null ? null : TeamCodec.readMeta(body);
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<String> getMemberIds(@NotNull String name) {
+        ByteBuffer body = body(name);
+        if (body == null) return Collections.emptyList();
+        TeamCodec.readMeta(body);
+        return readMemberIds(body);
+    }
+
+    @Override
+    public @NotNull @Unmodifiable List<Team> restore(@NotNull TeamManager manager, @NotNull Function<String, TeamMember> members) {
+        // a corrupt team fails the restore before any team was created
+        for (String name : this.bodies.keySet()) body(name);
+        List<Team> teams = new ArrayList<>(this.bodies.size());
+        for (String name : this.bodies.keySet()) {
+            ByteBuffer body = body(name);
+            TeamMeta meta = TeamCodec.readMeta(body);
+
+            List<TeamMember> resolved = new ArrayList<>();
+            for (String id : readMemberIds(body)) {
+                TeamMember member = members.apply(id);
+                if (member != null) resolved.add(member);
+            }
+
+            Team team = manager.createTeam(name);
+            team.setMeta(meta);
+            team.addMembers(resolved);
+            teams.add(team);
+        }
+        return Collections.unmodifiableList(teams);
+    }
+
+    private @Nullable ByteBuffer body(@NotNull String name) {
+        ByteBuffer body = this.bodies.get(name);
+        if (body == null) return null;
+        if (!this.validated.contains(name)) {
+            try {
+                validate(body.duplicate(), name, this.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e.getMessage(), e);
+            }
+            this.validated.add(name);
+        }
+        // each read gets its own position, so snapshots can be read from several threads
+        return body.duplicate();
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count = 0;
+
+        private CountingOutputStream(@NotNull OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte @NotNull [] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+
+    }
+
+    private static @NotNull List<String> readMemberIds(@NotNull ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) ids.add(TeamCodec.readString(buffer));
+        return Collections.unmodifiableList(ids);
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a transport carrying replicated team changes between servers.
+ * Frames must be delivered to every other server in the order they were sent.
+ */
+public interface TeamTransport {
+
+    /**
+     * Creates a transport that delivers frames in memory to every subscriber,
+     * including the sender. Useful for tests and for servers in the same process.
+     * @return The new transport.
+     */
+    static @NotNull TeamTransport loopback() {
+        return new LoopbackTransport();
+    }
+
+    /**
+     * Sends a frame to every other server.
+     * @param frame The frame to send.
+     */
+    void send(byte @NotNull [] frame);
+
+    /**
+     * Subscribes to frames sent by other servers.
+     * @param receiver The receiver of the frames.
+     */
+    void subscribe(@NotNull Consumer<byte @NotNull []> receiver);
+
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import net.kyori.adventure.text.Component;
+import net.minestom.server.adventure.AdventurePacketConvertor;
+import net.minestom.server.network.NetworkBuffer;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.ServerPacketIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes update packets for a team. The serialized form of each component
+ * is kept and only serialized again when that component changed, so changing
+ * the color or a single component does not serialize the others.
+ */
+final class TeamUpdateEncoder {
+
+    // matches TeamsPacket.UpdateTeamAction, TeamUpdateEncoderTest compares the two byte for byte
+    private static final byte UPDATE_ACTION = 2;
+
+    private final @NotNull String team;
+    private volatile @Nullable Fields fields;
+
+    TeamUpdateEncoder(@NotNull String team) {
+        this.team = team;
+    }
+
+    @NotNull ServerPacket encode(@NotNull TeamMeta meta) {
+        Fields previous = this.fields;
+        if (previous != null && previous.meta() == meta) return new UpdatePacket(this.team, previous);
+
+        Fields fields = fields(meta, previous);
+        this.fields = fields;
+        return new UpdatePacket(this.team, fields);
+    }
+
+    // leaves the kept components alone, for packets encoded ahead of time such as animation frames
+    @NotNull ServerPacket encodeDetached(@NotNull TeamMeta meta) {
+        return new UpdatePacket(this.team, fields(meta, null));
+    }
+
+    private static @NotNull Fields fields(@NotNull TeamMeta meta, @Nullable Fields previous) {
+        return new Fields(
+                meta,
+                encode(meta.displayName(), previous == null ? null : previous.meta().displayName(), previous == null ? null : previous.displayName()),
+                encode(meta.prefix(), previous == null ? null : previous.meta().prefix(), previous == null ? null : previous.prefix()),
+                encode(meta.suffix(), previous == null ? null : previous.meta().suffix(), previous == null ? null : previous.suffix())
+        );
+    }
+
+    private static byte @NotNull [] encode(@NotNull Component component, @Nullable Component previous, byte @Nullable [] encoded) {
+        // builders copy untouched components, so an unchanged field is the same instance
+        if (component == previous && encoded != null) return encoded;
+        return NetworkBuffer.makeArray(buffer -> buffer.write(NetworkBuffer.COMPONENT, component));
+    }
+
+    private record Fields(@NotNull TeamMeta meta, byte @NotNull [] displayName, byte @NotNull [] prefix, byte @NotNull [] suffix) {
+
+    }
+
+    private record UpdatePacket(@NotNull String team, @NotNull Fields fields) implements ServerPacket {
+
+        @Override
+        public void write(@NotNull NetworkBuffer writer) {
+            TeamMeta meta = this.fields.meta();
+            writer.write(NetworkBuffer.STRING, this.team);
+            writer.write(NetworkBuffer.BYTE, UPDATE_ACTION);
+            writer.write(NetworkBuffer.RAW_BYTES, this.fields.displayName());
+            writer.write(NetworkBuffer.BYTE, TeamImpl.createFriendlyFlags(meta));
+            writer.write(NetworkBuffer.STRING, meta.tagVisibility().visibility().getIdentifier());
+            writer.write(NetworkBuffer.STRING, meta.collisionRule().rule().getIdentifier());
+            writer.write(NetworkBuffer.VAR_INT, AdventurePacketConvertor.getNamedTextColorValue(meta.color()));
+            writer.write(NetworkBuffer.RAW_BYTES, this.fields.prefix());
+            writer.write(NetworkBuffer.RAW_BYTES, this.fields.suffix());
+        }
+
+        @Override
+        public int getId() {
+            return ServerPacketIdentifier.TEAMS;
+        }
+
+    }
+
+}
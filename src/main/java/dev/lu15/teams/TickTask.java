@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.timer.TaskSchedule;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A task running every tick while it has work. It is started when work is
+ * queued and stops itself once idle, without missing work queued while it
+ * was stopping.
+ */
+final class TickTask {
+
+    private final @NotNull BooleanSupplier tick;
+    private final @NotNull BooleanSupplier queued;
+    private final @NotNull AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Creates a stopped task.
+     * @param tick Runs one tick, returning whether work is left for the next one.
+     * @param queued Whether work was queued that the last tick did not see.
+     */
+    TickTask(@NotNull BooleanSupplier tick, @NotNull BooleanSupplier queued) {
+        this.tick = tick;
+        this.queued = queued;
+    }
+
+    /**
+     * Starts the task unless it is running, called after queueing work.
+     */
+    void start() {
+        if (this.running.compareAndSet(false, true)) MinecraftServer.getSchedulerManager().submitTask(this::run);
+    }
+
+    private @NotNull TaskSchedule run() {
+        if (this.tick.getAsBoolean()) return TaskSchedule.nextTick();
+
+        // work may have been queued after the check, keep running if so
+        this.running.set(false);
+        if (this.queued.getAsBoolean() && this.running.compareAndSet(false, true)) return TaskSchedule.nextTick();
+        return TaskSchedule.stop();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.event;
+
+import dev.lu15.teams.Team;
+import dev.lu15.teams.TeamManager;
+import dev.lu15.teams.TeamMember;
+import net.minestom.server.event.trait.CancellableEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called before a member is removed from a {@link Team}. Cancelling it keeps the member in the team.
+ * Not called when a member's entity is removed or their time to live runs out, nor when a
+ * member leaves a team of a {@link TeamManager} because they were added to
+ * another of its teams. Cancel the {@link TeamMemberAddEvent} of the new team to prevent a move.
+ */
+public final class TeamMemberRemoveEvent implements TeamEvent, CancellableEvent {
+
+    private final @NotNull Team team;
+    private final @NotNull TeamMember member;
+
+    private boolean cancelled;
+
+    public TeamMemberRemoveEvent(@NotNull Team team, @NotNull TeamMember member) {
+        this.team = team;
+        this.member = member;
+    }
+
+    @Override
+    public @NotNull Team getTeam() {
+        return this.team;
+    }
+
+    /**
+     * Gets the member being removed.
+     * @return The member being removed.
+     */
+    public @NotNull TeamMember getMember() {
+        return this.member;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams.event;
+
+import dev.lu15.teams.Team;
+import dev.lu15.teams.TeamMeta;
+import net.minestom.server.event.trait.CancellableEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called before a change to the metadata of a {@link Team} is sent to viewers.
+ * The new metadata can be replaced, cancelling the event keeps the old metadata.
+ */
+public final class TeamMetaChangeEvent implements TeamEvent, CancellableEvent {
+
+    private final @NotNull Team team;
+    private final @NotNull TeamMeta oldMeta;
+    private @NotNull TeamMeta newMeta;
+
+    private boolean cancelled;
+
+    public TeamMetaChangeEvent(@NotNull Team team, @NotNull TeamMeta oldMeta, @NotNull TeamMeta newMeta) {
+        this.team = team;
+        this.oldMeta = oldMeta;
+        this.newMeta = newMeta;
+    }
+
+    @Override
+    public @NotNull Team getTeam() {
+        return this.team;
+    }
+
+    /**
+     * Gets the metadata before the change.
+     * @return The metadata before the change.
+     */
+    public @NotNull TeamMeta getOldMeta() {
+        return this.oldMeta;
+    }
+
+    /**
+     * Gets the metadata after the change.
+     * @return The metadata after the change.
+     */
+    public @NotNull TeamMeta getNewMeta() {
+        return this.newMeta;
+    }
+
+    /**
+     * Sets the metadata after the change.
+     * @param newMeta The metadata after the change.
+     */
+    public void setNewMeta(@NotNull TeamMeta newMeta) {
+        this.newMeta = newMeta;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+}
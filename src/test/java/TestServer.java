@@ -24,7 +24,6 @@
 
 import dev.lu15.teams.Team;
 import dev.lu15.teams.TeamMember;
-import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.minestom.server.MinecraftServer;
@@ -63,7 +62,7 @@ public final class TestServer {
             event.getPlayer().setInvisible(true);
             team.addViewer(event.getPlayer());
             team.setMeta(meta -> meta.color(NamedTextColor.RED));
-            Audience.audience(team.getMembers()).sendMessage(Component.text("You are on the team!"));
+            team.members().sendMessage(Component.text("You are on the team!"));
         });
 
         MojangAuth.init();
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.FramedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import net.minestom.server.network.player.PlayerConnection;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Records the packets sent to a test player, unwrapping cached and framed packets.
+ */
+final class RecordingConnection extends PlayerConnection {
+
+    private final @NotNull Queue<ServerPacket> packets = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void sendPacket(@NotNull SendablePacket packet) {
+        if (packet instanceof CachedPacket cached) this.packets.add(cached.packet());
+        else if (packet instanceof FramedPacket framed) this.packets.add(framed.packet());
+        else if (packet instanceof ServerPacket serverPacket) this.packets.add(serverPacket);
+    }
+
+    @Override
+    public @NotNull SocketAddress getRemoteAddress() {
+        return new InetSocketAddress(0);
+    }
+
+    @NotNull List<TeamsPacket> teams() {
+        return this.packets.stream()
+                .filter(TeamsPacket.class::isInstance)
+                .map(TeamsPacket.class::cast)
+                .toList();
+    }
+
+    @NotNull List<String> entities(@NotNull Class<? extends TeamsPacket.Action> type) {
+        return teams().stream()
+                .map(TeamsPacket::action)
+                .filter(type::isInstance)
+                .flatMap(action -> action instanceof TeamsPacket.AddEntitiesToTeamAction add ? add.entities().stream() : ((TeamsPacket.RemoveEntitiesToTeamAction) action).entities().stream())
+                .toList();
+    }
+
+}
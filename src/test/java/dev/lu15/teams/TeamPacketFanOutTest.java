@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamPacketFanOutTest {
+
+    @BeforeAll
+    static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    void movingOutOfAsyncTeamHoldsTheNewTeamsPackets() {
+        // slow enough that nothing is delivered before the member moves
+        Executor slow = CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS);
+        TeamManager manager = TeamManager.create();
+        Team async = manager.createTeam("async", builder -> builder.asyncPackets(slow));
+        Team sync = manager.createTeam("sync");
+        TeamMember alice = TeamMember.of("alice");
+        RecordingConnection connection = new RecordingConnection();
+        Player viewer = new Player(UUID.randomUUID(), "viewer", connection);
+        async.addViewer(viewer);
+        sync.addViewer(viewer);
+
+        async.addMember(alice);
+        CompletableFuture<Void> added = async.flushPackets();
+        assertFalse(added.isDone());
+
+        // returns without waiting, the sync team's addition is held behind the async team's packets
+        sync.addMember(alice);
+        CompletableFuture<Void> moved = sync.flushPackets();
+        assertFalse(added.isDone());
+        assertFalse(moved.isDone());
+        assertSame(sync, manager.getTeam(alice));
+        assertEquals(Set.of(), async.getMembers());
+
+        moved.join();
+        assertTrue(added.isDone());
+        List<String> changes = connection.teams().stream()
+                .filter(packet -> !(packet.action() instanceof TeamsPacket.CreateTeamAction))
+                .map(packet -> packet.teamName() + " " + packet.action().getClass().getSimpleName())
+                .toList();
+        assertEquals(List.of("async AddEntitiesToTeamAction", "async RemoveEntitiesToTeamAction", "sync AddEntitiesToTeamAction"), changes);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.List;
+import java.util.Set;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.MinecraftServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TeamReplicatorTest {
+
+    @BeforeAll
+    static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    void loopbackRoundTrip() {
+        TeamTransport transport = TeamTransport.loopback();
+        TeamManager source = TeamManager.create();
+        TeamManager target = TeamManager.create();
+        TeamReplicator sourceReplicator = TeamReplicator.create(source, transport);
+        TeamReplicator.create(target, transport);
+
+        TeamMeta meta = TeamMeta.builder()
+                .prefix(Component.text("[Red] ", NamedTextColor.RED))
+                .color(NamedTextColor.RED)
+                .build();
+        Team red = source.createTeam("red");
+        red.setMeta(meta);
+        red.addMembers(List.of(TeamMember.of("alice"), TeamMember.of("bob")));
+        sourceReplicator.flush();
+
+        Team replicated = target.getTeam("red");
+        assertNotNull(replicated);
+        assertSame(meta, replicated.getMeta());
+        assertEquals(Set.of(TeamMember.of("alice"), TeamMember.of("bob")), replicated.getMembers());
+        assertSame(replicated, target.getTeam(TeamMember.of("alice")));
+
+        // a member moving teams leaves the old team on the other server too
+        Team blue = source.createTeam("blue");
+        blue.addMember(TeamMember.of("alice"));
+        red.removeMember(TeamMember.of("bob"));
+        sourceReplicator.flush();
+
+        assertEquals(Set.of(), replicated.getMembers());
+        Team replicatedBlue = target.getTeam("blue");
+        assertNotNull(replicatedBlue);
+        assertEquals(Set.of(TeamMember.of("alice")), replicatedBlue.getMembers());
+        assertNull(target.getTeam(TeamMember.of("bob")));
+
+        source.removeTeam(blue);
+        sourceReplicator.flush();
+        assertNull(target.getTeam("blue"));
+        assertNull(target.getTeam(TeamMember.of("alice")));
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.MinecraftServer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TeamSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        TeamMeta meta = TeamMeta.builder()
+                .prefix(Component.text("[Red] ", NamedTextColor.RED))
+                .color(NamedTextColor.RED)
+                .collisionRule(CollisionRule.PUSH_OWN_TEAM)
+                .disallowFriendlyFire()
+                .build();
+        Team red = Team.of("red");
+        red.setMeta(meta);
+        red.addMembers(List.of(TeamMember.of("alice"), TeamMember.of("bob")));
+        Team empty = Team.of("empty");
+
+        Path path = write(List.of(red, empty));
+        TeamSnapshot snapshot = TeamSnapshot.read(path);
+
+        assertEquals(Set.of("red", "empty"), snapshot.getTeamNames());
+        // metas are interned, so the decoded meta is the very same instance
+        assertSame(meta, snapshot.getMeta("red"));
+        assertEquals(Set.of("alice", "bob"), Set.copyOf(snapshot.getMemberIds("red")));
+        assertEquals(List.of(), snapshot.getMemberIds("empty"));
+        assertNull(snapshot.getMeta("missing"));
+
+        TeamManager manager = TeamManager.create();
+        snapshot.restore(manager, TeamMember::of);
+        Team restored = manager.getTeam("red");
+        assertNotNull(restored);
+        assertSame(meta, restored.getMeta());
+        assertEquals(Set.of(TeamMember.of("alice"), TeamMember.of("bob")), restored.getMembers());
+    }
+
+    @Test
+    void truncatedSnapshotFailsOnOpen() throws IOException {
+        Team team = Team.of("team");
+        team.addMember(TeamMember.of("alice"));
+        Path path = write(List.of(team));
+
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = this.directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> TeamSnapshot.read(truncated));
+
+        // the footer is intact but the index claims more teams than it holds
+        int count = bytes.length - Integer.BYTES - Long.BYTES - Long.BYTES - "team".length() - Integer.BYTES - Integer.BYTES;
+        bytes[count + 2] = 0x7F;
+        Path corrupt = this.directory.resolve("corrupt.bin");
+        Files.write(corrupt, bytes);
+        assertThrows(IOException.class, () -> TeamSnapshot.read(corrupt));
+    }
+
+    @Test
+    void corruptTeamFailsWhenRead() throws IOException {
+        Team team = Team.of("team");
+        team.addMember(TeamMember.of("alice"));
+        byte[] bytes = Files.readAllBytes(write(List.of(team)));
+
+        // the collision rule, the first byte of the team's body right after the header
+        bytes[Integer.BYTES + Short.BYTES] = 0x7F;
+        Path corrupt = this.directory.resolve("corrupt.bin");
+        Files.write(corrupt, bytes);
+        TeamSnapshot snapshot = TeamSnapshot.read(corrupt);
+
+        assertEquals(Set.of("team"), snapshot.getTeamNames());
+        assertThrows(UncheckedIOException.class, () -> snapshot.getMeta("team"));
+        assertThrows(UncheckedIOException.class, () -> snapshot.getMemberIds("team"));
+        TeamManager manager = TeamManager.create();
+        assertThrows(UncheckedIOException.class, () -> snapshot.restore(manager, TeamMember::of));
+        assertNull(manager.getTeam("team"));
+    }
+
+    private Path write(List<Team> teams) throws IOException {
+        Path path = this.directory.resolve("teams.bin");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            TeamSnapshot.write(teams, out);
+        }
+        return path;
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.network.NetworkBuffer;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TeamUpdateEncoderTest {
+
+    @BeforeAll
+    static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    void matchesTeamsPacket() {
+        TeamMeta first = TeamMeta.builder()
+                .prefix(Component.text("[Red] ", NamedTextColor.RED))
+                .suffix(Component.text(" *"))
+                .displayName(Component.text("Red"))
+                .color(NamedTextColor.RED)
+                .tagVisibility(TagVisibility.HIDE_FOR_OTHER_TEAMS)
+                .collisionRule(CollisionRule.PUSH_OWN_TEAM)
+                .disallowFriendlyFire()
+                .build();
+        // changes a single component, so the others are reused from the previous encoding
+        TeamMeta second = TeamMeta.builder(first).prefix(Component.text("[Blue] ", NamedTextColor.BLUE)).build();
+        TeamMeta third = TeamMeta.builder(second).color(NamedTextColor.BLUE).build();
+
+        TeamUpdateEncoder encoder = new TeamUpdateEncoder("team");
+        for (TeamMeta meta : List.of(TeamMeta.builder().build(), first, second, third, third)) {
+            ServerPacket expected = new TeamsPacket("team", new TeamsPacket.UpdateTeamAction(
+                    meta.displayName(),
+                    TeamImpl.createFriendlyFlags(meta),
+                    meta.tagVisibility().visibility(),
+                    meta.collisionRule().rule(),
+                    meta.color(),
+                    meta.prefix(),
+                    meta.suffix()
+            ));
+            ServerPacket actual = encoder.encode(meta);
+            assertEquals(expected.getId(), actual.getId());
+            assertArrayEquals(bytes(expected), bytes(actual));
+        }
+    }
+
+    private static byte[] bytes(ServerPacket packet) {
+        return NetworkBuffer.makeArray(buffer -> buffer.write(packet));
+    }
+
+}
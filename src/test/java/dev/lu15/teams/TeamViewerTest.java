@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2023 LooFifteen <luis@lu15.dev>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package dev.lu15.teams;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.play.TeamsPacket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeamViewerTest {
+
+    @BeforeAll
+    static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    void viewerAddedDuringBatchIsNotSentItsRemoval() throws Exception {
+        Team team = Team.builder("team").build();
+        team.addMember(TeamMember.of("alice"));
+        RecordingConnection viewing = new RecordingConnection();
+        Player viewer = new Player(UUID.randomUUID(), "viewer", viewing);
+        team.addViewer(viewer);
+
+        CountDownLatch removed = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(() -> team.batch(changes -> {
+            changes.removeMember(TeamMember.of("alice"));
+            removed.countDown();
+            try {
+                added.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+
+        // joins while the removal is held by the batch on the other thread
+        removed.await();
+        RecordingConnection joining = new RecordingConnection();
+        assertTrue(team.addViewer(new Player(UUID.randomUUID(), "joining", joining)));
+        added.countDown();
+        batch.join();
+
+        // the create packet already lacked alice, so the vanilla client must not be told to remove her
+        assertEquals(List.of(), joining.entities(TeamsPacket.AddEntitiesToTeamAction.class));
+        assertEquals(List.of(), joining.entities(TeamsPacket.RemoveEntitiesToTeamAction.class));
+        TeamsPacket create = joining.teams().get(0);
+        assertFalse(((TeamsPacket.CreateTeamAction) create.action()).entities().contains("alice"));
+        // the viewer that joined before the batch still sees the removal
+        assertEquals(List.of("alice"), viewing.entities(TeamsPacket.RemoveEntitiesToTeamAction.class));
+    }
+
+}